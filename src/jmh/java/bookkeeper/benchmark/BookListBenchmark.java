@@ -0,0 +1,52 @@
+package bookkeeper.benchmark;
+
+import bookkeeper.list.BookList;
+import bookkeeper.model.Book;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.ArrayList;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the title, keyword and category lookups of {@link BookList}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class BookListBenchmark {
+    @Param({"1000", "10000", "100000", "1000000"})
+    private int size;
+
+    private BookList bookList;
+    private int nextTitle = 0;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        bookList = new BookList("Benchmark Inventory", Datasets.books(size, Datasets.SEED));
+    }
+
+    @Benchmark
+    public Book searchBook() {
+        nextTitle = (nextTitle + 7919) % size; // Walk the titles in a cache-unfriendly order
+        return bookList.searchBook(bookList.getBookList().get(nextTitle).getTitle());
+    }
+
+    @Benchmark
+    public ArrayList<Book> findBooksByKeyword() {
+        // Matches the titles whose index starts with 123, about size / 1000 books
+        return bookList.findBooksByKeyword(" 123");
+    }
+
+    @Benchmark
+    public ArrayList<Book> findBooksByCategory() {
+        return bookList.findBooksByCategory("mystery");
+    }
+}
@@ -0,0 +1,94 @@
+package bookkeeper.benchmark;
+
+import bookkeeper.list.BookList;
+import bookkeeper.list.LoanList;
+import bookkeeper.storage.Storage;
+import bookkeeper.storage.StorageFormat;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+/**
+ * Writes synthetic inventory and loan list files that BookKeeper can load, at any scale.
+ * <p>
+ * Usage: {@code DatasetGenerator [--books N] [--loan-fraction F] [--folder DIR] [--format text|binary]
+ * [--seed S]}. The files are written through {@link Storage}, so they are exactly what BookKeeper
+ * itself would save. Any existing data files and journal in the folder are replaced.
+ */
+public class DatasetGenerator {
+    static final String DEFAULT_FOLDER = "./data";
+    static final String INVENTORY_FILE_NAME = "bookKeeper_bookList.txt";
+    static final String LOAN_LIST_FILE_NAME = "bookKeeper_loanList.txt";
+    static final String JOURNAL_FILE_NAME = "bookKeeper_journal.txt";
+    private static final String DATA_FILE_PREFIX = "bookKeeper_";
+    private static final String USAGE = "Usage: DatasetGenerator [--books N] [--loan-fraction F] [--folder DIR] "
+            + "[--format text|binary] [--seed S]";
+
+    public static void main(String[] args) throws IOException {
+        int bookCount = 100_000;
+        double loanFraction = 0.3;
+        String folder = DEFAULT_FOLDER;
+        StorageFormat format = StorageFormat.TEXT;
+        long seed = Datasets.SEED;
+        for (int i = 0; i < args.length; i++) {
+            if (i + 1 >= args.length) {
+                throw new IllegalArgumentException(USAGE);
+            }
+            switch (args[i]) {
+            case "--books":
+                bookCount = Integer.parseInt(args[++i]);
+                break;
+            case "--loan-fraction":
+                loanFraction = Double.parseDouble(args[++i]);
+                break;
+            case "--folder":
+                folder = args[++i];
+                break;
+            case "--format":
+                format = StorageFormat.fromString(args[++i]);
+                break;
+            case "--seed":
+                seed = Long.parseLong(args[++i]);
+                break;
+            default:
+                throw new IllegalArgumentException(USAGE);
+            }
+        }
+
+        long start = System.nanoTime();
+        deleteDataFiles(Path.of(folder));
+        BookList bookList = new BookList("Inventory", Datasets.books(bookCount, seed));
+        // Adding the loans marks their books as on loan, so the inventory is saved after them
+        LoanList loanList = new LoanList("Loan List", Datasets.loans(bookList.getBookList(), loanFraction, seed));
+        useFolder(folder);
+        Storage.setStorageFormat(format);
+        Storage.saveInventory(bookList);
+        Storage.saveLoans(loanList);
+        System.out.printf("Wrote %d books and %d loans to %s in %d ms%n", bookCount,
+                loanList.getLoanList().size(), new File(folder).getAbsolutePath(),
+                (System.nanoTime() - start) / 1_000_000);
+    }
+
+    /**
+     * Points {@link Storage} at the data files in the given folder.
+     */
+    static void useFolder(String folder) {
+        Storage.setInventoryFilePath(folder + "/" + INVENTORY_FILE_NAME);
+        Storage.setLoanFilePath(folder + "/" + LOAN_LIST_FILE_NAME);
+        Storage.setJournalFilePath(folder + "/" + JOURNAL_FILE_NAME);
+    }
+
+    private static void deleteDataFiles(Path folder) throws IOException {
+        if (!Files.isDirectory(folder)) {
+            return;
+        }
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(folder, DATA_FILE_PREFIX + "*")) {
+            for (Path file : files) {
+                Files.delete(file);
+            }
+        }
+    }
+}
@@ -0,0 +1,82 @@
+package bookkeeper.benchmark;
+
+import bookkeeper.model.Book;
+import bookkeeper.model.Category;
+import bookkeeper.model.Condition;
+import bookkeeper.model.Loan;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Builds synthetic books and loans for benchmarks.
+ * <p>
+ * Datasets are generated from a fixed seed, so every run of a benchmark sees the same records.
+ */
+public final class Datasets {
+    public static final long SEED = 2113L;
+
+    private static final String[] TITLE_WORDS = {"Silent", "Garden", "Empire", "River", "Shadow", "Winter",
+        "Crown", "Letters", "Midnight", "Harbor", "Stone", "Glass", "Forest", "Memory", "Island", "Storm"};
+    private static final String[] FIRST_NAMES = {"Alex", "Jamie", "Morgan", "Priya", "Wei", "Nur", "Sam",
+        "Chris", "Aisha", "Daniel", "Mei", "Ravi"};
+    private static final String[] LAST_NAMES = {"Tan", "Lim", "Ng", "Kumar", "Lee", "Wong", "Rahman",
+        "Chen", "Smith", "Ong", "Goh", "Lau"};
+    private static final String[] PHONE_PREFIXES = {"6", "8", "9"};
+
+    private Datasets() {
+    }
+
+    /**
+     * Returns the title of the book with the given index, which is unique within a dataset.
+     */
+    public static String title(int index) {
+        return TITLE_WORDS[index % TITLE_WORDS.length] + " " + TITLE_WORDS[(index / 7) % TITLE_WORDS.length]
+                + " " + index;
+    }
+
+    /**
+     * Returns the given number of books with unique titles and random details.
+     */
+    public static ArrayList<Book> books(int count, long seed) {
+        Random random = new Random(seed);
+        Category[] categories = Category.values();
+        Condition[] conditions = Condition.values();
+        ArrayList<Book> books = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            String note = random.nextInt(4) == 0 ? "Donated copy" : "";
+            books.add(new Book(title(i), personName(random), categories[random.nextInt(categories.length)],
+                    conditions[random.nextInt(conditions.length)], "Shelf " + (char) ('A' + random.nextInt(26))
+                    + random.nextInt(100), note));
+        }
+        return books;
+    }
+
+    /**
+     * Returns loans for the given fraction of the books, due within the next 60 days.
+     * The books are not marked as on loan until the loans are added to a loan list.
+     */
+    public static ArrayList<Loan> loans(List<Book> books, double fraction, long seed) {
+        Random random = new Random(seed);
+        LocalDate today = LocalDate.now();
+        ArrayList<Loan> loans = new ArrayList<>((int) (books.size() * fraction));
+        for (Book book : books) {
+            if (random.nextDouble() < fraction) {
+                String name = personName(random);
+                loans.add(new Loan(book, name, today.plusDays(1 + random.nextInt(60)), phoneNumber(random),
+                        name.toLowerCase().replace(' ', '.') + "@example.com"));
+            }
+        }
+        return loans;
+    }
+
+    public static String personName(Random random) {
+        return FIRST_NAMES[random.nextInt(FIRST_NAMES.length)] + " " + LAST_NAMES[random.nextInt(LAST_NAMES.length)];
+    }
+
+    public static String phoneNumber(Random random) {
+        return PHONE_PREFIXES[random.nextInt(PHONE_PREFIXES.length)] + (1000000 + random.nextInt(9000000));
+    }
+}
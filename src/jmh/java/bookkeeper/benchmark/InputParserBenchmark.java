@@ -0,0 +1,28 @@
+package bookkeeper.benchmark;
+
+import bookkeeper.exceptions.IncorrectFormatException;
+import bookkeeper.logic.InputParser;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the parsing of add-book arguments.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class InputParserBenchmark {
+    private final String addBookInput = "The Great Gatsby a/F. Scott Fitzgerald cat/Fiction cond/Good loc/Shelf 1 "
+            + "note/Signed first edition";
+
+    @Benchmark
+    public String[] extractAddBookArgs() throws IncorrectFormatException {
+        return InputParser.extractAddBookArgs(addBookInput);
+    }
+}
@@ -0,0 +1,274 @@
+package bookkeeper.benchmark;
+
+import bookkeeper.list.BookList;
+import bookkeeper.list.LoanList;
+import bookkeeper.logic.InputHandler;
+import bookkeeper.model.Book;
+import bookkeeper.model.Category;
+import bookkeeper.model.Loan;
+import bookkeeper.storage.Storage;
+
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.time.LocalDate;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.EnumMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+
+/**
+ * Feeds a mixed command workload through {@link InputHandler} against a data folder and reports
+ * the throughput and latency percentiles, overall and per command.
+ * <p>
+ * Usage: {@code LoadDriver [--folder DIR] [--commands N] [--warmup N] [--group-commit N] [--seed S]
+ * [--mix add-book=30,search-title=40,add-loan=15,edit-loan=15]}. Generate the data folder with
+ * {@link DatasetGenerator} first. Commands change the data files like an interactive session would,
+ * so regenerate the folder for comparable runs.
+ */
+public class LoadDriver {
+    private static final String USAGE = "Usage: LoadDriver [--folder DIR] [--commands N] [--warmup N] "
+            + "[--group-commit N] [--seed S] [--mix add-book=30,search-title=40,add-loan=15,edit-loan=15]";
+    private static final DateTimeFormatter DATE_FORMATTER = DateTimeFormatter.ofPattern("dd-MM-yyyy");
+    private static final double[] PERCENTILES = {50, 90, 99, 99.9};
+
+    /**
+     * The kinds of commands in the workload.
+     */
+    private enum CommandType {
+        ADD_BOOK("add-book"), SEARCH_TITLE("search-title"), ADD_LOAN("add-loan"), EDIT_LOAN("edit-loan");
+
+        private final String commandWord;
+
+        CommandType(String commandWord) {
+            this.commandWord = commandWord;
+        }
+
+        static CommandType fromCommandWord(String commandWord) {
+            for (CommandType type : values()) {
+                if (type.commandWord.equals(commandWord)) {
+                    return type;
+                }
+            }
+            throw new IllegalArgumentException("Unknown command in mix: " + commandWord + "\n" + USAGE);
+        }
+    }
+
+    private final Random random;
+    private final EnumMap<CommandType, Integer> mix;
+    private final int mixTotal;
+    // Titles of the books that are available and on loan, kept in step with the commands sent
+    private final ArrayList<String> availableTitles = new ArrayList<>();
+    private final ArrayList<String> loanedTitles = new ArrayList<>();
+    private int addedBookCount = 0;
+
+    private LoadDriver(EnumMap<CommandType, Integer> mix, long seed) {
+        this.mix = mix;
+        this.mixTotal = mix.values().stream().mapToInt(Integer::intValue).sum();
+        this.random = new Random(seed);
+    }
+
+    public static void main(String[] args) {
+        String folder = DatasetGenerator.DEFAULT_FOLDER;
+        int commandCount = 100_000;
+        int warmupCount = 10_000;
+        int groupCommitSize = 1;
+        long seed = Datasets.SEED;
+        EnumMap<CommandType, Integer> mix = parseMix("add-book=30,search-title=40,add-loan=15,edit-loan=15");
+        for (int i = 0; i < args.length; i++) {
+            if (i + 1 >= args.length) {
+                throw new IllegalArgumentException(USAGE);
+            }
+            switch (args[i]) {
+            case "--folder":
+                folder = args[++i];
+                break;
+            case "--commands":
+                commandCount = Integer.parseInt(args[++i]);
+                break;
+            case "--warmup":
+                warmupCount = Integer.parseInt(args[++i]);
+                break;
+            case "--group-commit":
+                groupCommitSize = Integer.parseInt(args[++i]);
+                break;
+            case "--seed":
+                seed = Long.parseLong(args[++i]);
+                break;
+            case "--mix":
+                mix = parseMix(args[++i]);
+                break;
+            default:
+                throw new IllegalArgumentException(USAGE);
+            }
+        }
+
+        DatasetGenerator.useFolder(folder);
+        Storage.setJournalEnabled(true);
+        Storage.setGroupCommitSize(groupCommitSize);
+        new LoadDriver(mix, seed).run(warmupCount, commandCount);
+    }
+
+    private void run(int warmupCount, int commandCount) {
+        PrintStream console = System.out;
+        System.setOut(new PrintStream(OutputStream.nullOutputStream())); // Discard BookKeeper's own output
+        long startupStart = System.nanoTime();
+        InputHandler inputHandler = new InputHandler();
+        long startupNanos = System.nanoTime() - startupStart;
+        loadTitles();
+
+        for (int i = 0; i < warmupCount; i++) {
+            inputHandler.executeCommand(nextCommand(nextCommandType()));
+        }
+
+        EnumMap<CommandType, long[]> latencies = new EnumMap<>(CommandType.class);
+        EnumMap<CommandType, Integer> counts = new EnumMap<>(CommandType.class);
+        for (CommandType type : CommandType.values()) {
+            latencies.put(type, new long[commandCount]);
+            counts.put(type, 0);
+        }
+        long[] allLatencies = new long[commandCount];
+        int failureCount = 0;
+        long runStart = System.nanoTime();
+        for (int i = 0; i < commandCount; i++) {
+            CommandType type = nextCommandType();
+            String command = nextCommand(type);
+            long commandStart = System.nanoTime();
+            boolean isSuccessful = inputHandler.executeCommand(command);
+            long latency = System.nanoTime() - commandStart;
+            allLatencies[i] = latency;
+            int count = counts.get(type);
+            latencies.get(type)[count] = latency;
+            counts.put(type, count + 1);
+            if (!isSuccessful) {
+                failureCount++;
+            }
+        }
+        long runNanos = System.nanoTime() - runStart;
+        long closeStart = System.nanoTime();
+        inputHandler.close();
+        long closeNanos = System.nanoTime() - closeStart;
+        System.setOut(console);
+
+        console.printf("Startup: %.1f ms, final flush: %.1f ms%n", startupNanos / 1e6, closeNanos / 1e6);
+        console.printf("%d commands (%d failed) in %.1f ms: %.0f commands/sec%n", commandCount, failureCount,
+                runNanos / 1e6, commandCount / (runNanos / 1e9));
+        printLatencies(console, "all", allLatencies, commandCount);
+        for (CommandType type : CommandType.values()) {
+            printLatencies(console, type.commandWord, latencies.get(type), counts.get(type));
+        }
+    }
+
+    /**
+     * Loads the titles of the available and loaned books from the data folder, journal included.
+     */
+    private void loadTitles() {
+        BookList bookList = new BookList("Inventory", Storage.loadInventory());
+        LoanList loanList = new LoanList("Loan List", Storage.loadLoans(bookList));
+        Storage.replayJournal(bookList, loanList);
+        Set<Book> loanedBooks = new HashSet<>();
+        for (Loan loan : loanList.getLoanList()) {
+            loanedBooks.add(loan.getBook());
+            loanedTitles.add(loan.getTitle());
+        }
+        for (Book book : bookList.getBookList()) {
+            if (!loanedBooks.contains(book)) {
+                availableTitles.add(book.getTitle());
+            }
+        }
+    }
+
+    private CommandType nextCommandType() {
+        int choice = random.nextInt(mixTotal);
+        for (Map.Entry<CommandType, Integer> entry : mix.entrySet()) {
+            choice -= entry.getValue();
+            if (choice < 0) {
+                return entry.getKey();
+            }
+        }
+        throw new AssertionError("Mix weights do not add up");
+    }
+
+    private String nextCommand(CommandType type) {
+        switch (type) {
+        case ADD_LOAN:
+            if (!availableTitles.isEmpty()) {
+                String title = removeRandom(availableTitles);
+                loanedTitles.add(title);
+                String name = Datasets.personName(random);
+                return "add-loan " + title + " n/" + name + " d/" + randomReturnDate() + " p/"
+                        + Datasets.phoneNumber(random) + " e/" + name.toLowerCase().replace(' ', '.')
+                        + "@example.com";
+            }
+            return nextCommand(CommandType.ADD_BOOK);
+        case EDIT_LOAN:
+            if (!loanedTitles.isEmpty()) {
+                String title = loanedTitles.get(random.nextInt(loanedTitles.size()));
+                return "edit-loan " + title + " d/" + randomReturnDate();
+            }
+            return nextCommand(CommandType.SEARCH_TITLE);
+        case SEARCH_TITLE:
+            return "search-title " + random.nextInt(1000);
+        default:
+            addedBookCount++;
+            String title = "Load Driver Book " + random.nextInt(Integer.MAX_VALUE) + "-" + addedBookCount;
+            availableTitles.add(title);
+            Category category = Category.values()[random.nextInt(Category.values().length)];
+            return "add-book " + title + " a/" + Datasets.personName(random) + " cat/" + category
+                    + " cond/Good loc/Shelf " + random.nextInt(100);
+        }
+    }
+
+    private String removeRandom(ArrayList<String> titles) {
+        int index = random.nextInt(titles.size());
+        String title = titles.get(index);
+        titles.set(index, titles.get(titles.size() - 1));
+        titles.remove(titles.size() - 1);
+        return title;
+    }
+
+    private String randomReturnDate() {
+        return LocalDate.now().plusDays(1 + random.nextInt(60)).format(DATE_FORMATTER);
+    }
+
+    private static EnumMap<CommandType, Integer> parseMix(String mixSpec) {
+        EnumMap<CommandType, Integer> mix = new EnumMap<>(CommandType.class);
+        for (String entry : mixSpec.split(",")) {
+            String[] parts = entry.split("=");
+            if (parts.length != 2) {
+                throw new IllegalArgumentException("Invalid mix entry: " + entry + "\n" + USAGE);
+            }
+            int weight = Integer.parseInt(parts[1].trim());
+            if (weight < 0) {
+                throw new IllegalArgumentException("Mix weights cannot be negative: " + entry);
+            }
+            mix.put(CommandType.fromCommandWord(parts[0].trim()), weight);
+        }
+        if (mix.values().stream().mapToInt(Integer::intValue).sum() == 0) {
+            throw new IllegalArgumentException("The mix must have at least one positive weight\n" + USAGE);
+        }
+        return mix;
+    }
+
+    private static void printLatencies(PrintStream console, String name, long[] latencies, int count) {
+        if (count == 0) {
+            return;
+        }
+        long[] sorted = Arrays.copyOf(latencies, count);
+        Arrays.sort(sorted);
+        StringBuilder line = new StringBuilder(String.format("%-13s n=%-8d", name, count));
+        for (double percentile : PERCENTILES) {
+            int index = (int) Math.min(count - 1, Math.ceil(percentile / 100 * count) - 1);
+            line.append(String.format(" p%-5s %9.1f us", formatPercentile(percentile), sorted[index] / 1e3));
+        }
+        line.append(String.format(" max %9.1f us", sorted[count - 1] / 1e3));
+        console.println(line);
+    }
+
+    private static String formatPercentile(double percentile) {
+        return percentile == Math.floor(percentile) ? String.valueOf((int) percentile) : String.valueOf(percentile);
+    }
+}
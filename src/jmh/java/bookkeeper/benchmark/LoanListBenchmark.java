@@ -0,0 +1,60 @@
+package bookkeeper.benchmark;
+
+import bookkeeper.list.BookList;
+import bookkeeper.list.LoanList;
+import bookkeeper.model.Book;
+import bookkeeper.model.Loan;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the book, return date and borrower lookups of {@link LoanList}, with half of the books on loan.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class LoanListBenchmark {
+    @Param({"1000", "10000", "100000", "1000000"})
+    private int size;
+
+    private ArrayList<Book> books;
+    private LoanList loanList;
+    private Loan sampleLoan;
+    private int nextBook = 0;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        books = Datasets.books(size, Datasets.SEED);
+        new BookList("Benchmark Inventory", books);
+        loanList = new LoanList("Benchmark Loan List", Datasets.loans(books, 0.5, Datasets.SEED));
+        sampleLoan = loanList.getLoanList().get(0);
+    }
+
+    @Benchmark
+    public Loan findLoan() {
+        nextBook = (nextBook + 7919) % size;
+        return loanList.findLoan(books.get(nextBook));
+    }
+
+    @Benchmark
+    public ArrayList<Loan> findLoansDueWithinAWeek() {
+        LocalDate today = LocalDate.now();
+        return loanList.findLoansDueBetween(today, today.plusDays(7));
+    }
+
+    @Benchmark
+    public ArrayList<Loan> findLoansByBorrower() {
+        return loanList.findLoansByBorrower(sampleLoan.getBorrowerName(), sampleLoan.getPhoneNumber(), null);
+    }
+}
@@ -0,0 +1,76 @@
+package bookkeeper.benchmark;
+
+import bookkeeper.list.BookList;
+import bookkeeper.model.Book;
+import bookkeeper.storage.Storage;
+import bookkeeper.storage.StorageFormat;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+/**
+ * Measures saving and loading the inventory file in each storage format, which is the cost of starting
+ * BookKeeper and of a full save. Text files of 1M books are above the parallel loading threshold, so that
+ * size also covers the parallel loader.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class StorageBenchmark {
+    @Param({"1000", "10000", "100000", "1000000"})
+    private int size;
+
+    @Param({"TEXT", "BINARY"})
+    private StorageFormat format;
+
+    private BookList bookList;
+    private Path folder;
+    private PrintStream originalOut;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        originalOut = System.out;
+        System.setOut(new PrintStream(OutputStream.nullOutputStream())); // Hide the "Loaded ..." messages
+        folder = Files.createTempDirectory("bookkeeper-benchmark");
+        Storage.setInventoryFilePath(folder.resolve("bookKeeper_bookList.txt").toString());
+        Storage.setStorageFormat(format);
+        bookList = new BookList("Benchmark Inventory", Datasets.books(size, Datasets.SEED));
+        Storage.saveInventory(bookList);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        System.setOut(originalOut);
+        Storage.setStorageFormat(StorageFormat.TEXT);
+        try (Stream<Path> files = Files.walk(folder)) {
+            files.sorted(Comparator.reverseOrder()).forEach(path -> path.toFile().delete());
+        }
+    }
+
+    @Benchmark
+    public ArrayList<Book> loadInventory() {
+        return Storage.loadInventory();
+    }
+
+    @Benchmark
+    public void saveInventory() {
+        Storage.saveInventory(bookList);
+    }
+}
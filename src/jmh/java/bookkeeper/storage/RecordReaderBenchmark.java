@@ -0,0 +1,80 @@
+package bookkeeper.storage;
+
+import bookkeeper.benchmark.Datasets;
+import bookkeeper.model.Book;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.FileReader;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Scanner;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares tokenising an inventory file with {@link RecordReader} against the Scanner and regex split
+ * that the loaders used before it. Lives in the storage package, as RecordReader is package-private.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class RecordReaderBenchmark {
+    @Param({"10000", "100000", "1000000"})
+    private int lineCount;
+
+    private Path file;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        file = Files.createTempFile("bookkeeper-benchmark", ".txt");
+        try (BufferedWriter writer = Files.newBufferedWriter(file)) {
+            for (Book book : Datasets.books(lineCount, Datasets.SEED)) {
+                writer.write(book.toFileString());
+                writer.newLine();
+            }
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        Files.deleteIfExists(file);
+    }
+
+    @Benchmark
+    public void scannerAndRegexSplit(Blackhole blackhole) throws IOException {
+        try (Scanner scanner = new Scanner(new File(file.toString()))) {
+            while (scanner.hasNextLine()) {
+                String[] parts = scanner.nextLine().split(" \\| ");
+                for (String part : parts) {
+                    blackhole.consume(part.trim());
+                }
+            }
+        }
+    }
+
+    @Benchmark
+    public void recordReader(Blackhole blackhole) throws IOException {
+        String[] fields = new String[RecordReader.MAX_FIELD_COUNT];
+        try (RecordReader reader = new RecordReader(new FileReader(file.toString()))) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                int fieldCount = RecordReader.split(line, fields);
+                for (int i = 0; i < Math.min(fieldCount, fields.length); i++) {
+                    blackhole.consume(fields[i]);
+                }
+            }
+        }
+    }
+}
@@ -1,7 +1,10 @@
 package bookkeeper;
 
 import bookkeeper.logic.InputHandler;
+import bookkeeper.storage.AsyncLogHandler;
 import bookkeeper.storage.LoggerConfig;
+import bookkeeper.storage.Storage;
+import bookkeeper.storage.StorageFormat;
 import bookkeeper.ui.Formatter;
 
 import java.util.logging.Logger;
@@ -11,16 +14,113 @@ public class BookKeeper {
      * Main entry-point for the BookKeeper application.
      */
     private static final Logger logger = Logger.getLogger(BookKeeper.class.getName());
+    private static final String USAGE = "Usage: java -jar BookKeeper.jar [--format text|binary] [--journal] " +
+            "[--group-commit N] [--flush-interval MILLISECONDS] [--script FILE] [--stats-file FILE] " +
+            "[--log-level LEVEL] [--log-overflow drop|block]";
+
+    private static String scriptFilePath;
+    private static String statsFilePath;
 
     public static void main(String[] args) {
         LoggerConfig.configureLogger(logger); // Configure the logger
         logger.info("Starting BookKeeper...");
         displayWelcomeMessage();
+        if (!parseArguments(args)) {
+            return;
+        }
         InputHandler inputHandler = new InputHandler();
-        inputHandler.askInput();
+        inputHandler.setStatsFilePath(statsFilePath);
+        if (scriptFilePath != null) {
+            inputHandler.runScript(scriptFilePath);
+        } else {
+            inputHandler.askInput();
+        }
         logger.info("Exiting BookKeeper...");
     }
 
+    /**
+     * Applies the command-line options. Supports {@code --format text|binary} to select the storage format
+     * and {@code --group-commit N} to persist the changes of every N changing commands together.
+     * {@code --journal} appends changes to a journal that is folded into the data files periodically.
+     * {@code --flush-interval MILLISECONDS} persists changes on a background thread instead.
+     * {@code --script FILE} runs the commands in the file instead of reading them interactively,
+     * persisting the changes only once the script ends unless a group commit size is given.
+     * {@code --stats-file FILE} writes the latencies of the commands run to the file on exit.
+     * {@code --log-level LEVEL} sets the level of the log file, and {@code --log-overflow drop|block}
+     * whether log records are dropped or the command waits while the log queue is full.
+     *
+     * @return {@code false} if the arguments are invalid.
+     */
+    private static boolean parseArguments(String[] args) {
+        boolean isGroupCommitSizeSet = false;
+        for (int i = 0; i < args.length; i++) {
+            if (args[i].equals("--format") && i + 1 < args.length) {
+                try {
+                    Storage.setStorageFormat(StorageFormat.fromString(args[++i]));
+                } catch (IllegalArgumentException e) {
+                    Formatter.printBorderedMessage(e.getMessage());
+                    return false;
+                }
+            } else if (args[i].equals("--journal")) {
+                Storage.setJournalEnabled(true);
+            } else if (args[i].equals("--group-commit") && i + 1 < args.length) {
+                int size = parsePositiveInt(args[++i]);
+                if (size < 1) {
+                    Formatter.printBorderedMessage("Invalid group commit size: " + args[i] +
+                            "\nThe group commit size must be a positive integer");
+                    return false;
+                }
+                Storage.setGroupCommitSize(size);
+                isGroupCommitSizeSet = true;
+            } else if (args[i].equals("--script") && i + 1 < args.length) {
+                scriptFilePath = args[++i];
+            } else if (args[i].equals("--log-level") && i + 1 < args.length) {
+                try {
+                    LoggerConfig.setLevel(LoggerConfig.parseLevel(args[++i]));
+                } catch (IllegalArgumentException e) {
+                    Formatter.printBorderedMessage(e.getMessage());
+                    return false;
+                }
+            } else if (args[i].equals("--log-overflow") && i + 1 < args.length) {
+                try {
+                    LoggerConfig.setOverflowPolicy(AsyncLogHandler.OverflowPolicy.fromString(args[++i]));
+                } catch (IllegalArgumentException e) {
+                    Formatter.printBorderedMessage(e.getMessage());
+                    return false;
+                }
+            } else if (args[i].equals("--stats-file") && i + 1 < args.length) {
+                statsFilePath = args[++i];
+            } else if (args[i].equals("--flush-interval") && i + 1 < args.length) {
+                int interval = parsePositiveInt(args[++i]);
+                if (interval < 1) {
+                    Formatter.printBorderedMessage("Invalid flush interval: " + args[i] +
+                            "\nThe flush interval must be a positive number of milliseconds");
+                    return false;
+                }
+                Storage.setFlushInterval(interval);
+            } else {
+                Formatter.printBorderedMessage("Unknown argument: " + args[i] + "\n" + USAGE);
+                return false;
+            }
+        }
+        if (scriptFilePath != null && !isGroupCommitSizeSet) {
+            Storage.setGroupCommitSize(Integer.MAX_VALUE); // Persist once, when the script ends
+        }
+        return true;
+    }
+
+    /**
+     * Returns the integer value of the argument, or -1 if it is not a positive integer.
+     */
+    private static int parsePositiveInt(String arg) {
+        try {
+            int value = Integer.parseInt(arg);
+            return value > 0 ? value : -1;
+        } catch (NumberFormatException e) {
+            return -1;
+        }
+    }
+
     public static void displayWelcomeMessage() {
         Formatter.printBorderedMessage("Welcome to BookKeeper.");
     }
@@ -0,0 +1,36 @@
+package bookkeeper.events;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.Timespan;
+
+/**
+ * Flight Recorder event for one command run by {@code InputHandler}, covering its parse, execute and
+ * persist phases.
+ */
+@Name("bookkeeper.Command")
+@Label("Command")
+@Category("BookKeeper")
+@Description("A command run by BookKeeper")
+public class CommandEvent extends jdk.jfr.Event {
+    @Label("Command")
+    @Description("The command word, or (unknown) for unknown commands")
+    public String command;
+
+    @Label("Successful")
+    public boolean isSuccessful;
+
+    @Label("Parse Duration")
+    @Timespan(Timespan.NANOSECONDS)
+    public long parseDuration;
+
+    @Label("Execute Duration")
+    @Timespan(Timespan.NANOSECONDS)
+    public long executeDuration;
+
+    @Label("Persist Duration")
+    @Timespan(Timespan.NANOSECONDS)
+    public long persistDuration;
+}
@@ -0,0 +1,46 @@
+package bookkeeper.events;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * Flight Recorder event for one lookup in an index of the inventory or the loan list.
+ * <p>
+ * Lookups are run for every record loaded as well as by commands, so the lookup key is not
+ * recorded, which keeps the events small and the borrower details out of recordings.
+ */
+@Name("bookkeeper.IndexLookup")
+@Label("Index Lookup")
+@Category("BookKeeper")
+@Description("A lookup in an index of the inventory or the loan list")
+public class IndexLookupEvent extends jdk.jfr.Event {
+    public static final String TITLE = "title";
+    public static final String KEYWORD = "keyword";
+    public static final String CATEGORY = "category";
+    public static final String BOOK = "book";
+    public static final String RETURN_DATE = "return-date";
+    public static final String BORROWER = "borrower";
+
+    @Label("Index")
+    public String index;
+
+    @Label("Result Count")
+    public int resultCount;
+
+    /**
+     * Ends the lookup started by {@link #begin()} and commits the event if it is enabled and over its threshold.
+     *
+     * @param index       The index looked up, one of the constants of this class.
+     * @param resultCount The number of records found.
+     */
+    public void finish(String index, int resultCount) {
+        end();
+        if (shouldCommit()) {
+            this.index = index;
+            this.resultCount = resultCount;
+            commit();
+        }
+    }
+}
@@ -0,0 +1,52 @@
+package bookkeeper.events;
+
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * Flight Recorder event for one load or save of a data file, or one append to the journal.
+ */
+@Name("bookkeeper.Storage")
+@Label("Storage I/O")
+@Category("BookKeeper")
+@Description("A data file loaded or saved, or records appended to the journal")
+public class StorageEvent extends jdk.jfr.Event {
+    public static final String LOAD = "load";
+    public static final String SAVE = "save";
+    public static final String JOURNAL_APPEND = "journal-append";
+
+    @Label("Operation")
+    public String operation;
+
+    @Label("File Path")
+    public String filePath;
+
+    @Label("Record Count")
+    public int recordCount;
+
+    @Label("Bytes")
+    @DataAmount
+    public long bytes;
+
+    /**
+     * Ends the operation started by {@link #begin()} and commits the event if it is enabled and over its threshold.
+     *
+     * @param operation   The operation, one of the constants of this class.
+     * @param filePath    Path of the file read or written.
+     * @param recordCount The number of records read or written.
+     * @param bytes       The number of bytes read or written.
+     */
+    public void finish(String operation, String filePath, int recordCount, long bytes) {
+        end();
+        if (shouldCommit()) {
+            this.operation = operation;
+            this.filePath = filePath;
+            this.recordCount = recordCount;
+            this.bytes = bytes;
+            commit();
+        }
+    }
+}
@@ -81,12 +81,36 @@ public final class ErrorMessages {
     public static final String INVALID_FORMAT_SEARCH_TITLE = "Invalid format for search-title.\n" +
             "Expected format: search-title KEYWORD";
 
+    public static final String INVALID_FORMAT_VIEW_INVENTORY = "Invalid format for view-inventory.\n" +
+            "Expected format: view-inventory [size/PAGE_SIZE] [page/PAGE_NUMBER] or view-inventory next";
+
+    public static final String INVALID_FORMAT_VIEW_LOANS = "Invalid format for view-loans.\n" +
+            "Expected format: view-loans [size/PAGE_SIZE] [page/PAGE_NUMBER] or view-loans next";
+
+    public static final String INVALID_FORMAT_LOANS_BY = "Invalid format for loans-by.\n" +
+            "Expected format: loans-by [n/BORROWER_NAME] [p/PHONE_NUMBER] [e/EMAIL], with at least one of them";
+
+    public static final String INVALID_FORMAT_DUE_WITHIN = "Invalid format for due-within.\n" +
+            "Expected format: due-within DAYS, where DAYS is 0 or more";
+
     public static final String INVALID_FORMAT_LIST_CATEGORY = "Invalid format for list-category.\n" +
             "Expected format: list-category CATEGORY";
     
     public static final String INVALID_FORMAT_UPDATE_NOTE = "Invalid format for update-note. \n" +
             "Expected format: update-note BOOK_TITLE note/NOTE";
 
+    public static final String INVALID_FORMAT_IMPORT_BOOKS = "Invalid format for import-books.\n" +
+            "Expected format: import-books FILE_PATH";
+
+    public static final String INVALID_FORMAT_IMPORT_LOANS = "Invalid format for import-loans.\n" +
+            "Expected format: import-loans FILE_PATH";
+
+    public static final String INVALID_FORMAT_EXPORT_BOOKS = "Invalid format for export-books.\n" +
+            "Expected format: export-books FILE_PATH [cat/CATEGORY] [status/on-loan|available]";
+
+    public static final String INVALID_FORMAT_EXPORT_LOANS = "Invalid format for export-loans.\n" +
+            "Expected format: export-loans FILE_PATH [cat/CATEGORY]";
+
     private ErrorMessages() {
     } //private constructor to prevent instantiation
 }
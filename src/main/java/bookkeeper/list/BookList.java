@@ -1,71 +1,143 @@
 package bookkeeper.list;
 
+import bookkeeper.events.IndexLookupEvent;
 import bookkeeper.model.Book;
 import bookkeeper.ui.Formatter;
 import bookkeeper.model.Category;
 
 import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.TreeSet;
 
 public class BookList {
-    private final ArrayList<Book> bookList;
+    // Books in list order, so removing a book does not shift the books after it
+    private final CompactingList<Book> bookList;
     private final String listName;
+    // Index of books by title, kept in sync with bookList for constant-time lookups
+    private final HashMap<String, Book> booksByTitle = new HashMap<>();
+    // Trigram index of titles for substring searches
+    private final TrigramIndex titleIndex = new TrigramIndex();
+    // Orders index results by their position in the list
+    private final Comparator<Book> listOrder;
+    // Books of each category in list order, so list-category costs O(result)
+    private final EnumMap<Category, TreeSet<Book>> booksByCategory = new EnumMap<>(Category.class);
 
     public BookList(String listName, ArrayList<Book> bookList) {
         this.listName = listName;
-        this.bookList = bookList;
+        this.bookList = new CompactingList<>(bookList);
+        this.listOrder = Comparator.comparingInt(this.bookList::orderOf);
+        for (Category category : Category.values()) {
+            booksByCategory.put(category, new TreeSet<>(listOrder));
+        }
+        for (Book book : bookList) {
+            indexBook(book);
+        }
     }
 
     public String getListName() {
         return listName;
     }
 
+    /**
+     * Returns the books in list order. The returned list must not be modified, and is only
+     * valid until the next change to this list.
+     */
     public ArrayList<Book> getBookList() {
-        return bookList;
+        return bookList.asList();
     }
 
     public void addBook(Book book) {
         bookList.add(book);
+        indexBook(book);
+    }
+
+    private void indexBook(Book book) {
+        booksByTitle.putIfAbsent(book.getTitle(), book);
+        titleIndex.add(book);
+        booksByCategory.get(book.getCategory()).add(book);
     }
 
     public Book searchBook(String title) {
-        for (Book book : bookList) {
-            if (book.getTitle().equals(title)) { 
-                return book;
-            }
+        IndexLookupEvent event = new IndexLookupEvent();
+        event.begin();
+        Book book = booksByTitle.get(title);
+        event.finish(IndexLookupEvent.TITLE, book == null ? 0 : 1);
+        return book;
+    }
+
+    /**
+     * Changes the title of a book in this list, keeping the title index in sync.
+     *
+     * @param book     The book to rename.
+     * @param newTitle The new title of the book.
+     */
+    public void updateTitle(Book book, String newTitle) {
+        unindexTitle(book);
+        book.setTitle(newTitle);
+        booksByTitle.putIfAbsent(newTitle, book);
+        titleIndex.update(book);
+    }
+
+    /**
+     * Updates the details of a book in this list, keeping the category index in sync.
+     * Null arguments leave the corresponding field unchanged.
+     *
+     * @throws IllegalArgumentException If the category or condition is invalid.
+     */
+    public void updateBookFields(Book book, String author, String category, String condition, String location,
+            String note) throws IllegalArgumentException {
+        booksByCategory.get(book.getCategory()).remove(book);
+        try {
+            book.setBookFields(author, category, condition, location, note);
+        } finally {
+            booksByCategory.get(book.getCategory()).add(book);
         }
-        return null;
     }
 
+    /**
+     * Returns the books whose titles contain the keyword, ignoring case, in list order.
+     *
+     * @param keyword The keyword to search for.
+     * @return The matching books.
+     */
     public ArrayList<Book> findBooksByKeyword(String keyword) {
-        ArrayList<Book> filteredBookList = new ArrayList<>();
-        for (Book book : bookList) {
-            String titleLowerCase = book.getTitle().toLowerCase();
-            String keywordLowerCase = keyword.toLowerCase();
-            if (titleLowerCase.contains(keywordLowerCase)) {
-                filteredBookList.add(book);
-            }
-        }
+        IndexLookupEvent event = new IndexLookupEvent();
+        event.begin();
+        ArrayList<Book> filteredBookList = titleIndex.search(keyword);
+        filteredBookList.sort(listOrder);
+        event.finish(IndexLookupEvent.KEYWORD, filteredBookList.size());
         return filteredBookList;
     }
 
     public ArrayList<Book> findBooksByCategory(String category) throws IllegalArgumentException {
-        ArrayList<Book> filteredBookList = new ArrayList<>();
-
         // Normalize the input category string to a Category enum
         Category targetCategory = Category.fromString(category);
-        for (Book book : bookList) {
-            if (book.getCategory() == targetCategory) { // Compare using the enum value
-                filteredBookList.add(book);
-            }
-        }
-        // Handle invalid category input (optional)
-        return filteredBookList;
+        IndexLookupEvent event = new IndexLookupEvent();
+        event.begin();
+        ArrayList<Book> categoryBooks = new ArrayList<>(booksByCategory.get(targetCategory));
+        event.finish(IndexLookupEvent.CATEGORY, categoryBooks.size());
+        return categoryBooks;
     }
 
     public void removeBook(Book book) {
+        // Unindex the book first, as the category index looks up its position in the list
+        if (!bookList.contains(book)) {
+            return;
+        }
+        unindexTitle(book);
+        titleIndex.remove(book);
+        booksByCategory.get(book.getCategory()).remove(book);
         bookList.remove(book);
     }
 
+    private void unindexTitle(Book book) {
+        // Titles are unique, as add-book, the loaders and the importer all reject duplicates
+        Book removedBook = booksByTitle.remove(book.getTitle());
+        assert removedBook == book : "Book titles must be unique";
+    }
+
     /**
      * Prints all books in the bookList.
      * First prints the book title, followed by the remaining attributes indented.
@@ -77,6 +149,33 @@ public class BookList {
             return;
         }
 
-        Formatter.printBookList(bookList);
+        Formatter.printBookList(bookList.asList());
+    }
+
+    /**
+     * Prints one page of the book list, numbering the books by their position in the whole list.
+     *
+     * @param pageNumber The page to print, counting from 1.
+     * @param pageSize   The number of books on a page.
+     * @return True if there are books after this page.
+     * @throws IllegalArgumentException If the page is past the end of the list.
+     */
+    public boolean viewBookPage(int pageNumber, int pageSize) throws IllegalArgumentException {
+        assert pageNumber > 0 && pageSize > 0 : "Page number and size must be positive";
+        if (bookList.isEmpty()) {
+            Formatter.printBorderedMessage("Book List Empty!");
+            return false;
+        }
+
+        int pageCount = Pages.count(bookList.size(), pageSize);
+        if (pageNumber > pageCount) {
+            throw new IllegalArgumentException("Page " + pageNumber + " does not exist, the inventory has "
+                    + pageCount + " pages of " + pageSize + " books.");
+        }
+        int from = (pageNumber - 1) * pageSize;
+        int to = (int) Math.min((long) from + pageSize, bookList.size());
+        Formatter.printBookPage(bookList.asList().subList(from, to), from + 1,
+                Pages.describe("books", from, to, bookList.size(), pageNumber, pageCount));
+        return pageNumber < pageCount;
     }
 }
@@ -0,0 +1,99 @@
+package bookkeeper.list;
+
+import java.util.ArrayList;
+import java.util.IdentityHashMap;
+
+/**
+ * Elements in insertion order that can each be removed in constant time.
+ * <p>
+ * A removed element leaves a gap in the backing list instead of shifting the elements after it.
+ * Gaps are closed in one pass once they make up half of the list, or when the list is read in
+ * order, so removal is amortised O(1) and reading the list costs no more than iterating it.
+ * Elements are kept by identity, and each element may be added only once.
+ */
+final class CompactingList<T> {
+    private final ArrayList<T> slots;
+    // Slot of each element in the backing list. Compaction renumbers the slots but keeps their order
+    private final IdentityHashMap<T, Integer> positions = new IdentityHashMap<>();
+    private int gapCount = 0;
+
+    /**
+     * Wraps the given list, which this list then owns.
+     */
+    CompactingList(ArrayList<T> elements) {
+        this.slots = elements;
+        for (int i = 0; i < elements.size(); i++) {
+            positions.put(elements.get(i), i);
+        }
+    }
+
+    void add(T element) {
+        assert !positions.containsKey(element) : "Element is already in the list";
+        positions.put(element, slots.size());
+        slots.add(element);
+    }
+
+    /**
+     * Removes the element from the list.
+     *
+     * @return False if the element is not in the list.
+     */
+    boolean remove(T element) {
+        Integer position = positions.remove(element);
+        if (position == null) {
+            return false;
+        }
+        slots.set(position, null);
+        gapCount++;
+        if (gapCount * 2 > slots.size()) {
+            compact();
+        }
+        return true;
+    }
+
+    boolean contains(T element) {
+        return positions.containsKey(element);
+    }
+
+    /**
+     * Returns a number that orders the element by its position in the list.
+     * The number changes when the list is compacted, but the order between elements does not.
+     */
+    int orderOf(T element) {
+        return positions.get(element);
+    }
+
+    int size() {
+        return slots.size() - gapCount;
+    }
+
+    boolean isEmpty() {
+        return size() == 0;
+    }
+
+    /**
+     * Returns the elements in insertion order, closing any gaps first.
+     * The returned list stays valid until the next change to this list.
+     */
+    ArrayList<T> asList() {
+        compact();
+        return slots;
+    }
+
+    private void compact() {
+        if (gapCount == 0) {
+            return;
+        }
+        int next = 0;
+        for (int i = 0; i < slots.size(); i++) {
+            T element = slots.get(i);
+            if (element != null) {
+                slots.set(next, element);
+                positions.put(element, next);
+                next++;
+            }
+        }
+        slots.subList(next, slots.size()).clear();
+        gapCount = 0;
+    }
+}
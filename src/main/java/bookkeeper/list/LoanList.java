@@ -1,48 +1,90 @@
 package bookkeeper.list;
 
+import bookkeeper.events.IndexLookupEvent;
 import bookkeeper.model.Book;
 import bookkeeper.model.Loan;
 import bookkeeper.storage.LoggerConfig;
 import bookkeeper.ui.Formatter;
 
+import java.time.LocalDate;
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
 import java.util.logging.Level;
 import java.util.logging.Logger;
+import java.util.regex.Pattern;
 
 public class LoanList {
     private static final Logger logger = Logger.getLogger(LoanList.class.getName());
-    private final ArrayList<Loan> loanList;
+    private static final Pattern WHITESPACE_PATTERN = Pattern.compile("\\s+");
+    private static final Pattern NON_DIGIT_PATTERN = Pattern.compile("\\D");
+    private static final Set<Loan> NO_LOANS = Collections.emptySet();
+    // Loans in list order, so removing a loan does not shift the loans after it
+    private final CompactingList<Loan> loanList;
     private final String listName;
+    // Index of loans by book, kept in sync with loanList for constant-time lookups
+    private final HashMap<Book, Loan> loansByBook = new HashMap<>();
+    // Loans by return date, so overdue and due-soon queries cost O(log n + result)
+    private final TreeMap<LocalDate, LinkedHashSet<Loan>> loansByReturnDate = new TreeMap<>();
+    // Loans by normalized borrower name, phone number and email, so loans-by costs O(result)
+    private final HashMap<String, LinkedHashSet<Loan>> loansByBorrowerName = new HashMap<>();
+    private final HashMap<String, LinkedHashSet<Loan>> loansByPhoneNumber = new HashMap<>();
+    private final HashMap<String, LinkedHashSet<Loan>> loansByEmail = new HashMap<>();
 
     public LoanList(String listName, ArrayList<Loan> loanList) {
         LoggerConfig.configureLogger(logger);
         this.listName = listName;
-        this.loanList = loanList;
+        this.loanList = new CompactingList<>(loanList);
+        for (Loan loan : loanList) {
+            loansByBook.putIfAbsent(loan.getBook(), loan);
+            indexFields(loan);
+        }
         logger.log(Level.INFO, "LoanList created with name: {0}", listName);
     }
 
+    /**
+     * Returns the loans in list order. The returned list must not be modified, and is only
+     * valid until the next change to this list.
+     */
     public ArrayList<Loan> getLoanList() {
-        return loanList;
+        return loanList.asList();
     }
 
     public String getListName() {
         return listName;
     }
 
+    /**
+     * Adds the loan to the end of the list.
+     * A book has at most one loan, so the loan is not added if its book is already on loan in this list.
+     */
     public void addLoan(Loan loan) {
         assert loan != null : "Loan cannot be null";
+        if (loansByBook.putIfAbsent(loan.getBook(), loan) != null) {
+            logger.log(Level.WARNING, () -> "Attempted to add a second loan for book: " + loan.getTitle());
+            return;
+        }
         loanList.add(loan);
+        indexFields(loan);
         loan.getBook().setOnLoan(true);
-        logger.log(Level.INFO, "Loan added: {0}", loan);
+        logger.log(Level.INFO, () -> "Loan added for book: " + loan.getTitle());
     }
 
     public void deleteLoan(Loan loan) {
         assert loan != null : "Loan cannot be null";
         if (loanList.remove(loan)) {
+            unindexLoan(loan);
+            unindexFields(loan);
             loan.getBook().setOnLoan(false);
-            logger.log(Level.INFO, "Loan removed: {0}", loan);
+            logger.log(Level.INFO, () -> "Loan removed for book: " + loan.getTitle());
         } else {
-            logger.log(Level.WARNING, "Attempted to remove a loan that does not exist: {0}", loan);
+            logger.log(Level.WARNING, () -> "Attempted to remove a loan that does not exist for book: " +
+                    loan.getTitle());
         }
     }
 
@@ -51,30 +93,214 @@ public class LoanList {
             Formatter.printBorderedMessage("Loan List Empty!");
             return;
         }
-        Formatter.printLoanList(loanList);
+        Formatter.printLoanList(loanList.asList());
+    }
+
+    /**
+     * Prints one page of the loan list, numbering the loans by their position in the whole list,
+     * which is the index {@link #findLoanByIndex(int)} takes.
+     *
+     * @param pageNumber The page to print, counting from 1.
+     * @param pageSize   The number of loans on a page.
+     * @return True if there are loans after this page.
+     * @throws IllegalArgumentException If the page is past the end of the list.
+     */
+    public boolean viewLoanPage(int pageNumber, int pageSize) throws IllegalArgumentException {
+        assert pageNumber > 0 && pageSize > 0 : "Page number and size must be positive";
+        if (loanList.isEmpty()) {
+            Formatter.printBorderedMessage("Loan List Empty!");
+            return false;
+        }
+
+        int pageCount = Pages.count(loanList.size(), pageSize);
+        if (pageNumber > pageCount) {
+            throw new IllegalArgumentException("Page " + pageNumber + " does not exist, the loan list has "
+                    + pageCount + " pages of " + pageSize + " loans.");
+        }
+        int from = (pageNumber - 1) * pageSize;
+        int to = (int) Math.min((long) from + pageSize, loanList.size());
+        Formatter.printLoanPage(loanList.asList().subList(from, to), from + 1,
+                Pages.describe("loans", from, to, loanList.size(), pageNumber, pageCount));
+        return pageNumber < pageCount;
     }
 
     public Loan findLoan(Book book) {
-        for (Loan loan : loanList) {
-            Book bookIter = loan.getBook();
-            if (bookIter.equals(book)) {
-                return loan;
+        IndexLookupEvent event = new IndexLookupEvent();
+        event.begin();
+        Loan loan = loansByBook.get(book);
+        event.finish(IndexLookupEvent.BOOK, loan == null ? 0 : 1);
+        return loan;
+    }
+
+    private void unindexLoan(Loan loan) {
+        // A book has at most one loan, as add-loan and the loaders reject a second one
+        loansByBook.remove(loan.getBook(), loan);
+    }
+
+    /**
+     * Updates the details of a loan in this list, keeping the return date and borrower indexes in sync.
+     * Null arguments leave the corresponding field unchanged.
+     *
+     * @throws IllegalArgumentException If the return date is invalid.
+     */
+    public void updateLoanFields(Loan loan, String borrowerName, String returnDate, String phoneNumber,
+            String email) throws IllegalArgumentException {
+        unindexFields(loan);
+        try {
+            loan.setLoanFields(borrowerName, returnDate, phoneNumber, email);
+        } finally {
+            indexFields(loan);
+        }
+    }
+
+    /**
+     * Returns the loans whose return date is before the given date, earliest first.
+     *
+     * @param date The date loans must be returned by.
+     * @return The overdue loans.
+     */
+    public ArrayList<Loan> findOverdueLoans(LocalDate date) {
+        IndexLookupEvent event = new IndexLookupEvent();
+        event.begin();
+        ArrayList<Loan> overdueLoans = flatten(loansByReturnDate.headMap(date, false).values());
+        event.finish(IndexLookupEvent.RETURN_DATE, overdueLoans.size());
+        return overdueLoans;
+    }
+
+    /**
+     * Returns the loans due between the two dates, both inclusive, earliest first.
+     *
+     * @param from  The first return date to include.
+     * @param until The last return date to include.
+     * @return The loans due in the range.
+     */
+    public ArrayList<Loan> findLoansDueBetween(LocalDate from, LocalDate until) {
+        assert !until.isBefore(from) : "Range must not end before it starts";
+        IndexLookupEvent event = new IndexLookupEvent();
+        event.begin();
+        ArrayList<Loan> dueLoans = flatten(loansByReturnDate.subMap(from, true, until, true).values());
+        event.finish(IndexLookupEvent.RETURN_DATE, dueLoans.size());
+        return dueLoans;
+    }
+
+    private static ArrayList<Loan> flatten(Collection<LinkedHashSet<Loan>> loansByDate) {
+        ArrayList<Loan> loans = new ArrayList<>();
+        for (LinkedHashSet<Loan> loansOnDate : loansByDate) {
+            loans.addAll(loansOnDate);
+        }
+        return loans;
+    }
+
+    /**
+     * Returns the loans of the borrower with the given details.
+     * Names and emails are matched ignoring case and extra whitespace, and phone numbers ignoring
+     * anything but digits. Details given as null are not matched.
+     *
+     * @param borrowerName The name of the borrower, or null.
+     * @param phoneNumber  The phone number of the borrower, or null.
+     * @param email        The email of the borrower, or null.
+     * @return The loans matching all given details.
+     */
+    public ArrayList<Loan> findLoansByBorrower(String borrowerName, String phoneNumber, String email) {
+        assert borrowerName != null || phoneNumber != null || email != null : "At least one detail must be given";
+        IndexLookupEvent event = new IndexLookupEvent();
+        event.begin();
+        ArrayList<Set<Loan>> candidates = new ArrayList<>();
+        if (borrowerName != null) {
+            candidates.add(lookup(loansByBorrowerName, normalizeName(borrowerName)));
+        }
+        if (phoneNumber != null) {
+            candidates.add(lookup(loansByPhoneNumber, normalizePhoneNumber(phoneNumber)));
+        }
+        if (email != null) {
+            candidates.add(lookup(loansByEmail, normalizeEmail(email)));
+        }
+
+        // Walk the smallest set and keep the loans that are in all the others
+        Set<Loan> smallest = candidates.get(0);
+        for (Set<Loan> loans : candidates) {
+            if (loans.size() < smallest.size()) {
+                smallest = loans;
+            }
+        }
+        ArrayList<Loan> matchingLoans = new ArrayList<>();
+        for (Loan loan : smallest) {
+            if (candidates.stream().allMatch(loans -> loans.contains(loan))) {
+                matchingLoans.add(loan);
             }
         }
-        return null;
+        event.finish(IndexLookupEvent.BORROWER, matchingLoans.size());
+        return matchingLoans;
+    }
+
+    private void indexFields(Loan loan) {
+        addToIndex(loansByReturnDate, loan.getReturnDate(), loan);
+        addToIndex(loansByBorrowerName, normalizeName(loan.getBorrowerName()), loan);
+        addToIndex(loansByPhoneNumber, normalizePhoneNumber(loan.getPhoneNumber()), loan);
+        addToIndex(loansByEmail, normalizeEmail(loan.getEmail()), loan);
+    }
+
+    private void unindexFields(Loan loan) {
+        removeFromIndex(loansByReturnDate, loan.getReturnDate(), loan);
+        removeFromIndex(loansByBorrowerName, normalizeName(loan.getBorrowerName()), loan);
+        removeFromIndex(loansByPhoneNumber, normalizePhoneNumber(loan.getPhoneNumber()), loan);
+        removeFromIndex(loansByEmail, normalizeEmail(loan.getEmail()), loan);
+    }
+
+    private static Set<Loan> lookup(Map<String, LinkedHashSet<Loan>> index, String key) {
+        Set<Loan> loans = index.get(key);
+        return loans == null ? NO_LOANS : loans;
+    }
+
+    private static <K> void addToIndex(Map<K, LinkedHashSet<Loan>> index, K key, Loan loan) {
+        index.computeIfAbsent(key, k -> new LinkedHashSet<>()).add(loan);
+    }
+
+    private static <K> void removeFromIndex(Map<K, LinkedHashSet<Loan>> index, K key, Loan loan) {
+        LinkedHashSet<Loan> loans = index.get(key);
+        if (loans != null && loans.remove(loan) && loans.isEmpty()) {
+            index.remove(key);
+        }
+    }
+
+    private static String normalizeName(String borrowerName) {
+        return WHITESPACE_PATTERN.matcher(borrowerName.trim()).replaceAll(" ").toLowerCase();
+    }
+
+    private static String normalizePhoneNumber(String phoneNumber) {
+        return NON_DIGIT_PATTERN.matcher(phoneNumber).replaceAll("");
+    }
+
+    private static String normalizeEmail(String email) {
+        return email.trim().toLowerCase();
     }
 
     public Loan findLoanByIndex(int index) {
         try {
-            return (loanList.get(index - 1));
+            return (loanList.asList().get(index - 1));
         } catch (IndexOutOfBoundsException e) {
             return null;
         }
     }
 
-    public void removeLoansByBook(Book book) {
+    /**
+     * Removes all loans associated with the given book.
+     * A book has at most one loan, so this removes the loan found through the book index.
+     *
+     * @param book The book whose loans should be removed.
+     * @return The loans that were removed.
+     */
+    public ArrayList<Loan> removeLoansByBook(Book book) {
         assert book != null : "Book cannot be null";
-        loanList.removeIf(loan -> loan.getBook().equals(book));
+        ArrayList<Loan> removedLoans = new ArrayList<>();
+        Loan loan = loansByBook.remove(book);
+        if (loan == null) {
+            return removedLoans;
+        }
+        loanList.remove(loan);
+        unindexFields(loan);
+        removedLoans.add(loan);
         logger.log(Level.INFO, "Removed all loans associated with book: {0}", book.getTitle());
+        return removedLoans;
     }
 }
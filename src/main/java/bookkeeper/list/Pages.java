@@ -0,0 +1,31 @@
+package bookkeeper.list;
+
+/**
+ * Arithmetic and descriptions shared by the paged views of the book and loan lists.
+ */
+final class Pages {
+    private Pages() {
+    }
+
+    /**
+     * Returns the number of pages needed to show the given number of entries.
+     */
+    static int count(int entryCount, int pageSize) {
+        return (int) ((entryCount + (long) pageSize - 1) / pageSize);
+    }
+
+    /**
+     * Describes which entries a page shows, e.g. "Showing books 21-40 of 95 (page 2 of 5)."
+     *
+     * @param entryName  The plural name of the entries.
+     * @param from       The index of the first entry on the page, inclusive and counting from 0.
+     * @param to         The index of the last entry on the page, exclusive.
+     * @param entryCount The number of entries in the list.
+     * @param pageNumber The number of the page, counting from 1.
+     * @param pageCount  The number of pages.
+     */
+    static String describe(String entryName, int from, int to, int entryCount, int pageNumber, int pageCount) {
+        return "Showing " + entryName + " " + (from + 1) + "-" + to + " of " + entryCount
+                + " (page " + pageNumber + " of " + pageCount + ").";
+    }
+}
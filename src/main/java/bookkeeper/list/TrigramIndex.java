@@ -0,0 +1,91 @@
+package bookkeeper.list;
+
+import bookkeeper.model.Book;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+
+/**
+ * Inverted index from the trigrams of lower-case titles to the books whose titles contain them.
+ * <p>
+ * A title containing a keyword must contain every trigram of the keyword, so the smallest
+ * posting set among the keyword's trigrams narrows the candidates before each one is
+ * verified with {@link String#contains}. Keywords shorter than a trigram are verified
+ * against every title, without lower-casing the titles again.
+ */
+class TrigramIndex {
+    private static final int GRAM_LENGTH = 3;
+
+    private final HashMap<Long, HashSet<Book>> booksByTrigram = new HashMap<>();
+    private final HashMap<Book, String> lowerCaseTitles = new HashMap<>();
+
+    void add(Book book) {
+        String lowerCaseTitle = book.getTitle().toLowerCase();
+        lowerCaseTitles.put(book, lowerCaseTitle);
+        for (int i = 0; i + GRAM_LENGTH <= lowerCaseTitle.length(); i++) {
+            booksByTrigram.computeIfAbsent(trigramKey(lowerCaseTitle, i), key -> new HashSet<>()).add(book);
+        }
+    }
+
+    void remove(Book book) {
+        String lowerCaseTitle = lowerCaseTitles.remove(book);
+        if (lowerCaseTitle == null) {
+            return;
+        }
+        for (int i = 0; i + GRAM_LENGTH <= lowerCaseTitle.length(); i++) {
+            long key = trigramKey(lowerCaseTitle, i);
+            HashSet<Book> books = booksByTrigram.get(key);
+            if (books != null && books.remove(book) && books.isEmpty()) {
+                booksByTrigram.remove(key);
+            }
+        }
+    }
+
+    /**
+     * Re-indexes a book after its title has changed.
+     */
+    void update(Book book) {
+        remove(book);
+        add(book);
+    }
+
+    /**
+     * Returns the books whose titles contain the keyword, ignoring case, in no particular order.
+     *
+     * @param keyword The keyword to search for.
+     * @return The matching books.
+     */
+    ArrayList<Book> search(String keyword) {
+        String lowerCaseKeyword = keyword.toLowerCase();
+        ArrayList<Book> matches = new ArrayList<>();
+
+        Iterable<Book> candidates = lowerCaseKeyword.length() < GRAM_LENGTH
+                ? lowerCaseTitles.keySet()
+                : smallestPosting(lowerCaseKeyword);
+        for (Book book : candidates) {
+            if (lowerCaseTitles.get(book).contains(lowerCaseKeyword)) {
+                matches.add(book);
+            }
+        }
+        return matches;
+    }
+
+    private HashSet<Book> smallestPosting(String lowerCaseKeyword) {
+        HashSet<Book> smallest = null;
+        for (int i = 0; i + GRAM_LENGTH <= lowerCaseKeyword.length(); i++) {
+            HashSet<Book> books = booksByTrigram.get(trigramKey(lowerCaseKeyword, i));
+            if (books == null) {
+                return new HashSet<>(); // Some trigram appears in no title
+            }
+            if (smallest == null || books.size() < smallest.size()) {
+                smallest = books;
+            }
+        }
+        return smallest;
+    }
+
+    private static long trigramKey(String text, int start) {
+        return ((long) text.charAt(start) << 32) | ((long) text.charAt(start + 1) << 16) | text.charAt(start + 2);
+    }
+}
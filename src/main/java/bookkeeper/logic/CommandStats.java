@@ -0,0 +1,102 @@
+package bookkeeper.logic;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Latencies of the commands run in this session, per command and per phase.
+ * <p>
+ * Each command is split into three phases: parse, which splits off the command word, execute, which
+ * parses the arguments and applies the command, and persist, which saves or journals its changes or
+ * hands them to the persistence worker. Not thread-safe, so only the thread that runs the commands
+ * may record them.
+ */
+class CommandStats {
+    private static final double[] PERCENTILES = {50, 90, 99};
+    private static final String ROW_FORMAT = "%-15s %8s %10s %10s %10s %10s %10s%n";
+
+    private final Map<String, LatencyHistogram> commandHistograms = new TreeMap<>();
+    private final LatencyHistogram parseHistogram = new LatencyHistogram();
+    private final LatencyHistogram executeHistogram = new LatencyHistogram();
+    private final LatencyHistogram persistHistogram = new LatencyHistogram();
+
+    /**
+     * Records the phases of one command.
+     *
+     * @param commandWord  The command word, as dispatched.
+     * @param parseNanos   Time taken to split off the command word.
+     * @param executeNanos Time taken to run the command.
+     * @param persistNanos Time taken to persist its changes.
+     */
+    void record(String commandWord, long parseNanos, long executeNanos, long persistNanos) {
+        LatencyHistogram histogram = commandHistograms.get(commandWord);
+        if (histogram == null) {
+            histogram = new LatencyHistogram();
+            commandHistograms.put(commandWord, histogram);
+        }
+        histogram.record(parseNanos + executeNanos + persistNanos);
+        parseHistogram.record(parseNanos);
+        executeHistogram.record(executeNanos);
+        persistHistogram.record(persistNanos);
+    }
+
+    boolean isEmpty() {
+        return commandHistograms.isEmpty();
+    }
+
+    /**
+     * Returns a table of the count and latencies of each command, of all commands together and of each phase.
+     */
+    String format() {
+        StringBuilder table = new StringBuilder();
+        table.append(String.format(ROW_FORMAT, "Command", "Count", "Mean", "p50", "p90", "p99", "Max"));
+        LatencyHistogram allCommands = new LatencyHistogram();
+        for (Map.Entry<String, LatencyHistogram> entry : commandHistograms.entrySet()) {
+            appendRow(table, entry.getKey(), entry.getValue());
+            allCommands.add(entry.getValue());
+        }
+        appendRow(table, "(all)", allCommands);
+        table.append(System.lineSeparator());
+        table.append(String.format(ROW_FORMAT, "Phase", "Count", "Mean", "p50", "p90", "p99", "Max"));
+        appendRow(table, "parse", parseHistogram);
+        appendRow(table, "execute", executeHistogram);
+        appendRow(table, "persist", persistHistogram);
+        return table.toString();
+    }
+
+    /**
+     * Writes the table returned by {@link #format()} to a file, replacing any earlier contents.
+     *
+     * @param filePath Path of the file to write.
+     * @throws IOException If the file cannot be written.
+     */
+    void writeTo(String filePath) throws IOException {
+        Files.writeString(Path.of(filePath), format());
+    }
+
+    private static void appendRow(StringBuilder table, String name, LatencyHistogram histogram) {
+        Object[] columns = new Object[3 + PERCENTILES.length + 1];
+        columns[0] = name;
+        columns[1] = String.valueOf(histogram.getCount());
+        columns[2] = formatDuration(histogram.getMeanNanos());
+        for (int i = 0; i < PERCENTILES.length; i++) {
+            columns[3 + i] = formatDuration(histogram.getValueAtPercentile(PERCENTILES[i]));
+        }
+        columns[columns.length - 1] = formatDuration(histogram.getMaxNanos());
+        table.append(String.format(ROW_FORMAT, columns));
+    }
+
+    static String formatDuration(long nanos) {
+        if (nanos < 1_000) {
+            return nanos + " ns";
+        } else if (nanos < 1_000_000) {
+            return String.format("%.1f us", nanos / 1e3);
+        } else if (nanos < 1_000_000_000) {
+            return String.format("%.1f ms", nanos / 1e6);
+        }
+        return String.format("%.2f s", nanos / 1e9);
+    }
+}
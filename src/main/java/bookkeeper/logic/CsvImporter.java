@@ -0,0 +1,283 @@
+package bookkeeper.logic;
+
+import bookkeeper.list.BookList;
+import bookkeeper.list.LoanList;
+import bookkeeper.model.Book;
+import bookkeeper.model.Loan;
+import bookkeeper.storage.ChangeTracker;
+import bookkeeper.storage.CsvReader;
+import bookkeeper.storage.CsvWriter;
+import bookkeeper.storage.LoggerConfig;
+import bookkeeper.ui.Formatter;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Imports books and loans from UTF-8 CSV files in a single pass.
+ * <p>
+ * Rows are validated with the same rules as {@code add-book} and {@code add-loan}. Valid rows
+ * are added and marked in the change tracker, so the whole import is persisted in one flush.
+ * Invalid rows are written to a reject file next to the imported file, together with the
+ * reason they were rejected, instead of aborting the import. If the file cannot be read to the
+ * end, the rows already added are rolled back and the reject file is deleted, so a failed
+ * import leaves the inventory and loan list as they were.
+ */
+public class CsvImporter {
+    private static final Logger logger = Logger.getLogger(CsvImporter.class.getName());
+    private static final String CSV_FILE_EXTENSION = ".csv";
+    private static final String REJECT_FILE_SUFFIX = ".rejects.csv";
+    private static final String REJECT_REASON_COLUMN = "reason";
+    private static final String STORAGE_DELIMITER = "|";
+
+    private final BookList bookList;
+    private final LoanList loanList;
+    private final ChangeTracker changeTracker;
+
+    public CsvImporter(BookList bookList, LoanList loanList, ChangeTracker changeTracker) {
+        LoggerConfig.configureLogger(logger);
+        this.bookList = bookList;
+        this.loanList = loanList;
+        this.changeTracker = changeTracker;
+    }
+
+    /**
+     * Imports books from a CSV file with the columns
+     * {@code title,author,category,condition,location[,note[,onLoan]]}.
+     * A header row starting with {@code title} is skipped. The {@code onLoan} column written by
+     * {@code export-books} is ignored, as the status of a book follows from the imported loans.
+     *
+     * @param filePath Path of the CSV file.
+     * @throws IOException If the CSV file or the reject file cannot be read or written, in which case
+     *                     no books are imported.
+     */
+    public void importBooks(String filePath) throws IOException {
+        List<Book> importedBooks = new ArrayList<>();
+        try (CsvReader reader = new CsvReader(Files.newBufferedReader(Path.of(filePath), StandardCharsets.UTF_8));
+                RejectFile rejectFile = new RejectFile(filePath)) {
+            try {
+                List<String> row;
+                while ((row = reader.readRecord()) != null) {
+                    if (isBlank(row)) {
+                        continue;
+                    }
+                    if (reader.getLineNumber() == 1 && isHeader(row)) {
+                        rejectFile.setHeader(row);
+                        continue;
+                    }
+                    try {
+                        Book book = parseBook(row);
+                        bookList.addBook(book);
+                        changeTracker.markBookAdded(book);
+                        importedBooks.add(book);
+                    } catch (IllegalArgumentException e) {
+                        rejectFile.reject(row, e.getMessage());
+                    }
+                }
+            } catch (IOException e) {
+                for (Book book : importedBooks) {
+                    bookList.removeBook(book);
+                    changeTracker.markBookRemoved(book); // Cancels markBookAdded, so nothing is persisted
+                }
+                rejectFile.discard();
+                throw new IOException(e.getMessage() + "\nThe import was rolled back, no books were imported.", e);
+            }
+            printSummary(importedBooks.size() + " books", filePath, rejectFile);
+        }
+        logger.log(Level.INFO, "Imported {0} books from {1}", new Object[]{importedBooks.size(), filePath});
+    }
+
+    /**
+     * Imports loans from a CSV file with the columns
+     * {@code title,borrower name,return date,phone number,email}.
+     * A header row starting with {@code title} is skipped.
+     *
+     * @param filePath Path of the CSV file.
+     * @throws IOException If the CSV file or the reject file cannot be read or written, in which case
+     *                     no loans are imported.
+     */
+    public void importLoans(String filePath) throws IOException {
+        List<Loan> importedLoans = new ArrayList<>();
+        try (CsvReader reader = new CsvReader(Files.newBufferedReader(Path.of(filePath), StandardCharsets.UTF_8));
+                RejectFile rejectFile = new RejectFile(filePath)) {
+            try {
+                List<String> row;
+                while ((row = reader.readRecord()) != null) {
+                    if (isBlank(row)) {
+                        continue;
+                    }
+                    if (reader.getLineNumber() == 1 && isHeader(row)) {
+                        rejectFile.setHeader(row);
+                        continue;
+                    }
+                    try {
+                        Loan loan = parseLoan(row);
+                        loanList.addLoan(loan);
+                        changeTracker.markLoanAdded(loan);
+                        changeTracker.markBookChanged(loan.getBook()); // to update the onLoan status of the book
+                        importedLoans.add(loan);
+                    } catch (IllegalArgumentException e) {
+                        rejectFile.reject(row, e.getMessage());
+                    }
+                }
+            } catch (IOException e) {
+                for (Loan loan : importedLoans) {
+                    loanList.deleteLoan(loan); // Also marks the book as available again
+                    changeTracker.markLoanRemoved(loan); // Cancels markLoanAdded, so nothing is persisted
+                }
+                rejectFile.discard();
+                throw new IOException(e.getMessage() + "\nThe import was rolled back, no loans were imported.", e);
+            }
+            printSummary(importedLoans.size() + " loans", filePath, rejectFile);
+        }
+        logger.log(Level.INFO, "Imported {0} loans from {1}", new Object[]{importedLoans.size(), filePath});
+    }
+
+    private Book parseBook(List<String> row) {
+        if (row.size() < 5 || row.size() > 7) {
+            throw new IllegalArgumentException("Expected 5 to 7 columns: title, author, category, condition, " +
+                    "location, an optional note and an optional on-loan status");
+        }
+        String title = getField(row, 0, "Title");
+        String author = getField(row, 1, "Author");
+        String category = getField(row, 2, "Category");
+        String condition = getField(row, 3, "Condition");
+        String location = getField(row, 4, "Location");
+        String note = row.size() >= 6 ? getOptionalField(row, 5) : "";
+
+        if (bookList.searchBook(title) != null) {
+            throw new IllegalArgumentException("Book already exists in inventory: " + title);
+        }
+        return new Book(title, author, category, condition, location, note);
+    }
+
+    private Loan parseLoan(List<String> row) {
+        if (row.size() != 5) {
+            throw new IllegalArgumentException("Expected 5 columns: title, borrower name, return date, " +
+                    "phone number and email");
+        }
+        String title = getField(row, 0, "Title");
+        String borrowerName = getField(row, 1, "Borrower name");
+        String returnDate = getField(row, 2, "Return date");
+        String phoneNumber = getField(row, 3, "Phone number");
+        String email = getField(row, 4, "Email");
+
+        Book book = bookList.searchBook(title);
+        if (book == null) {
+            throw new IllegalArgumentException("Book not found in inventory: " + title);
+        }
+        if (book.isOnLoan()) {
+            throw new IllegalArgumentException("The book " + title + " is currently out on loan.");
+        }
+        if (!Loan.isValidPhoneNumber(phoneNumber)) {
+            throw new IllegalArgumentException("Illegal phone number");
+        }
+        if (!Loan.isValidEmail(email)) {
+            throw new IllegalArgumentException("Illegal email");
+        }
+        return new Loan(book, borrowerName, returnDate, phoneNumber, email);
+    }
+
+    private static String getField(List<String> row, int index, String name) {
+        String field = getOptionalField(row, index);
+        if (field.isEmpty()) {
+            throw new IllegalArgumentException(name + " cannot be empty");
+        }
+        return field;
+    }
+
+    private static String getOptionalField(List<String> row, int index) {
+        String field = row.get(index).trim();
+        // Records are stored one per line, separated by " | "
+        if (field.contains(STORAGE_DELIMITER) || field.contains("\n") || field.contains("\r")) {
+            throw new IllegalArgumentException("Fields cannot contain \"|\" or line breaks");
+        }
+        return field;
+    }
+
+    private static boolean isBlank(List<String> row) {
+        return row.size() == 1 && row.get(0).isBlank();
+    }
+
+    private static boolean isHeader(List<String> row) {
+        return row.get(0).trim().equalsIgnoreCase("title");
+    }
+
+    private static void printSummary(String imported, String filePath, RejectFile rejectFile) {
+        String summary = "Imported " + imported + " from " + filePath + ".";
+        if (rejectFile.getRejectCount() > 0) {
+            summary += "\n" + rejectFile.getRejectCount() + " rows rejected, see " + rejectFile.getFilePath() +
+                    " for the reasons.";
+        }
+        Formatter.printBorderedMessage(summary);
+    }
+
+    /**
+     * Reject file of an import, which is only created once the first row is rejected.
+     */
+    private static class RejectFile implements AutoCloseable {
+        private final String filePath;
+        private List<String> header;
+        private CsvWriter writer;
+        private int rejectCount = 0;
+
+        private RejectFile(String importFilePath) throws IOException {
+            String basePath = importFilePath.toLowerCase().endsWith(CSV_FILE_EXTENSION)
+                    ? importFilePath.substring(0, importFilePath.length() - CSV_FILE_EXTENSION.length())
+                    : importFilePath;
+            this.filePath = basePath + REJECT_FILE_SUFFIX;
+            Files.deleteIfExists(Path.of(filePath)); // Drop the rejects of an earlier import of the same file
+        }
+
+        private String getFilePath() {
+            return filePath;
+        }
+
+        private int getRejectCount() {
+            return rejectCount;
+        }
+
+        private void setHeader(List<String> header) {
+            this.header = header;
+        }
+
+        private void reject(List<String> row, String reason) throws IOException {
+            if (writer == null) {
+                writer = new CsvWriter(Files.newBufferedWriter(Path.of(filePath), StandardCharsets.UTF_8));
+                if (header != null) {
+                    writer.writeRecord(withReason(header, REJECT_REASON_COLUMN));
+                }
+            }
+            writer.writeRecord(withReason(row, reason));
+            rejectCount++;
+        }
+
+        private static List<String> withReason(List<String> row, String reason) {
+            List<String> record = new ArrayList<>(row);
+            record.add(reason);
+            return record;
+        }
+
+        /**
+         * Closes and deletes the reject file, if it was created.
+         */
+        private void discard() throws IOException {
+            close();
+            writer = null;
+            Files.deleteIfExists(Path.of(filePath));
+        }
+
+        @Override
+        public void close() throws IOException {
+            if (writer != null) {
+                writer.close();
+            }
+        }
+    }
+}
@@ -1,40 +1,72 @@
 package bookkeeper.logic;
 
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.ArrayList;
 import java.util.Scanner;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Predicate;
 import java.util.logging.Logger;
 
+import bookkeeper.events.CommandEvent;
 import bookkeeper.list.BookList;
 import bookkeeper.list.LoanList;
+import bookkeeper.storage.ChangeTracker;
+import bookkeeper.storage.Exporter;
 import bookkeeper.storage.LoggerConfig;
+import bookkeeper.storage.PersistenceWorker;
 import bookkeeper.storage.Storage;
 import bookkeeper.exceptions.BookNotFoundException;
 import bookkeeper.exceptions.IncorrectFormatException;
 import bookkeeper.exceptions.InvalidArgumentException;
 import bookkeeper.exceptions.ErrorMessages;
 import bookkeeper.model.Book;
+import bookkeeper.model.Category;
 import bookkeeper.model.Loan;
 import bookkeeper.ui.Formatter;
 
 public class InputHandler {
     private static final Logger logger = Logger.getLogger(InputHandler.class.getName());
+    private static final String UNKNOWN_COMMAND = "(unknown)";
     private final BookList bookList;
     private final LoanList loanList;
+    private final ChangeTracker changeTracker = new ChangeTracker();
+    private final CsvImporter csvImporter;
+    // Held while a command runs, so the persistence worker never captures a half-applied command
+    private final ReentrantLock stateLock = new ReentrantLock();
+    private PersistenceWorker persistenceWorker;
+    private boolean isExiting = false;
+    // Page shown by the next "view-inventory next" and "view-loans next"
+    private final PageCursor inventoryCursor = new PageCursor();
+    private final PageCursor loanCursor = new PageCursor();
+    private final CommandStats commandStats = new CommandStats();
+    // File the command statistics are written to on exit, if any
+    private String statsFilePath;
 
     public InputHandler() {
         LoggerConfig.configureLogger(logger); // Configure the logger
         this.bookList = new BookList("Inventory", Storage.loadInventory());
         this.loanList = new LoanList("Loan List", Storage.loadLoans(this.bookList));
+        this.csvImporter = new CsvImporter(bookList, loanList, changeTracker);
+        Storage.replayJournal(bookList, loanList);
+        if (Storage.getFlushInterval() > 0) {
+            persistenceWorker = new PersistenceWorker(stateLock, changeTracker, bookList, loanList,
+                    Storage.getFlushInterval());
+            persistenceWorker.start();
+        }
         logger.info("InputHandler initialized");
     }
 
     public void askInput() {
-        boolean isAskingInput = true;
         String userInputLine;
         Scanner scanner = new Scanner(System.in);
 
         displayHelp();
 
-        while (isAskingInput) {
+        while (!isExiting) {
 
             System.out.println("Enter a command:");
 
@@ -42,70 +74,216 @@ public class InputHandler {
                 break;
             }
             userInputLine = scanner.nextLine();
-            if (userInputLine.isEmpty()) {
-                Formatter.printBorderedMessage("Please enter a command");
-            } else if (userInputLine.contains("|")){
-                Formatter.printBorderedMessage("Please do not use \"|\" in your inputs");
-            } else {
-                Storage.validateStorage(bookList, loanList);
-                try {
-                    String[] commandArgs = InputParser.extractCommandArgs(userInputLine);
-                    assert commandArgs.length > 0 : "commandArgs should have at least one element";
-
-                    switch (commandArgs[0]) {
-                    case "add-book":
-                        addBook(commandArgs);
-                        break;
-                    case "view-inventory":
-                        bookList.viewBookList();
-                        break;
-                    case "remove-book":
-                        removeBook(commandArgs);
-                        break;
-                    case "add-loan":
-                        addLoan(commandArgs);
-                        break;
-                    case "delete-loan":
-                        deleteLoan(commandArgs);
-                        break;
-                    case "edit-loan":
-                        editLoan(commandArgs);
-                        break;
-                    case "view-loans":
-                        loanList.viewLoanList();
-                        break;
-                    case "update-book":
-                        updateBook(commandArgs);
-                        break;
-                    case "search-title":
-                        searchTitle(commandArgs);
-                        break;
-                    case "list-category":
-                        listCategory(commandArgs);
-                        break;
-                    case "update-title":
-                        updateTitle(commandArgs);
-                        break;
-                    case "delete-note":
-                        deleteNote(commandArgs);
-                        break;
-                    case "help":
-                        displayHelp();
-                        break;
-                    case "exit":
-                        Formatter.printBorderedMessage("Exiting BookKeeper...");
-                        isAskingInput = false;
-                        break;
-                    default:
-                        throw new IncorrectFormatException("Unknown command: " + commandArgs[0]);
-                    }
-                } catch (IncorrectFormatException | BookNotFoundException | InvalidArgumentException e) {
-                    Formatter.printBorderedMessage(e.getMessage());
+            executeCommand(userInputLine);
+        }
+        close();
+    }
+
+    /**
+     * Executes every command in the given script file, without prompts or help, then exits.
+     * Changes are persisted according to the group commit size, and always once the script ends.
+     * Blank lines are skipped. An {@code exit} command ends the script early.
+     *
+     * @param scriptFilePath Path of the file with one command per line.
+     */
+    public void runScript(String scriptFilePath) {
+        int successCount = 0;
+        int failureCount = 0;
+        try (BufferedReader reader = Files.newBufferedReader(Path.of(scriptFilePath))) {
+            String line;
+            while (!isExiting && (line = reader.readLine()) != null) {
+                if (line.isBlank()) {
+                    continue;
+                }
+                if (executeCommand(line)) {
+                    successCount++;
+                } else {
+                    failureCount++;
                 }
             }
+        } catch (IOException e) {
+            Formatter.printBorderedMessage("Something went wrong while reading script: " + e.getMessage());
+        }
+        close();
+        Formatter.printBorderedMessage("Script finished: " + (successCount + failureCount) + " commands run, " +
+                successCount + " succeeded, " + failureCount + " failed.");
+    }
+
+    /**
+     * Executes a single command line and persists its changes.
+     * Used by {@link #askInput()} and {@link #runScript(String)}, and by tools that drive BookKeeper
+     * programmatically, which must call {@link #close()} when done.
+     *
+     * @param userInputLine The command line to execute.
+     * @return {@code true} if the command succeeded.
+     */
+    public boolean executeCommand(String userInputLine) {
+        Storage.reportCompactionFailure();
+        if (userInputLine.isEmpty()) {
+            Formatter.printBorderedMessage("Please enter a command");
+            return false;
+        } else if (userInputLine.contains("|")){
+            Formatter.printBorderedMessage("Please do not use \"|\" in your inputs");
+            return false;
+        }
+
+        boolean isSuccessful = false;
+        String commandWord = null; // Stays null for unknown commands, which are not recorded in the statistics
+        CommandEvent event = new CommandEvent();
+        event.begin();
+        long startNanos = System.nanoTime();
+        long parsedNanos = startNanos;
+        stateLock.lock();
+        try {
+            String[] commandArgs = InputParser.extractCommandArgs(userInputLine);
+            assert commandArgs.length > 0 : "commandArgs should have at least one element";
+            parsedNanos = System.nanoTime();
+            commandWord = commandArgs[0];
+
+            switch (commandArgs[0]) {
+            case "add-book":
+                addBook(commandArgs);
+                break;
+            case "view-inventory":
+                viewInventory(commandArgs);
+                break;
+            case "remove-book":
+                removeBook(commandArgs);
+                break;
+            case "add-loan":
+                addLoan(commandArgs);
+                break;
+            case "delete-loan":
+                deleteLoan(commandArgs);
+                break;
+            case "edit-loan":
+                editLoan(commandArgs);
+                break;
+            case "view-loans":
+                viewLoans(commandArgs);
+                break;
+            case "loans-by":
+                listLoansByBorrower(commandArgs);
+                break;
+            case "overdue":
+                listOverdueLoans();
+                break;
+            case "due-within":
+                listLoansDueWithin(commandArgs);
+                break;
+            case "update-book":
+                updateBook(commandArgs);
+                break;
+            case "search-title":
+                searchTitle(commandArgs);
+                break;
+            case "list-category":
+                listCategory(commandArgs);
+                break;
+            case "update-title":
+                updateTitle(commandArgs);
+                break;
+            case "delete-note":
+                deleteNote(commandArgs);
+                break;
+            case "import-books":
+                importBooks(commandArgs);
+                break;
+            case "import-loans":
+                importLoans(commandArgs);
+                break;
+            case "export-books":
+                exportBooks(commandArgs);
+                break;
+            case "export-loans":
+                exportLoans(commandArgs);
+                break;
+            case "stats":
+                displayStats();
+                break;
+            case "help":
+                displayHelp();
+                break;
+            case "exit":
+                Formatter.printBorderedMessage("Exiting BookKeeper...");
+                isExiting = true;
+                break;
+            default:
+                commandWord = null;
+                throw new IncorrectFormatException("Unknown command: " + commandArgs[0]);
+            }
+            isSuccessful = true;
+        } catch (IncorrectFormatException | BookNotFoundException | InvalidArgumentException e) {
+            Formatter.printBorderedMessage(e.getMessage());
+        } finally {
+            stateLock.unlock();
+        }
+        long executedNanos = System.nanoTime();
+        persistChanges();
+        long persistedNanos = System.nanoTime();
+        if (commandWord != null) {
+            commandStats.record(commandWord, parsedNanos - startNanos, executedNanos - parsedNanos,
+                    persistedNanos - executedNanos);
+        }
+        event.end();
+        if (event.shouldCommit()) {
+            event.command = commandWord != null ? commandWord : UNKNOWN_COMMAND;
+            event.isSuccessful = isSuccessful;
+            event.parseDuration = parsedNanos - startNanos;
+            event.executeDuration = executedNanos - parsedNanos;
+            event.persistDuration = persistedNanos - executedNanos;
+            event.commit();
+        }
+        return isSuccessful;
+    }
+
+    /**
+     * Sets the file the command statistics of the session are written to by {@link #close()}.
+     *
+     * @param filePath Path of the file, or {@code null} to not write the statistics.
+     */
+    public void setStatsFilePath(String filePath) {
+        this.statsFilePath = filePath;
+    }
+
+    /**
+     * Stops the persistence worker, if any, and persists all outstanding changes.
+     * Then writes the command statistics to the stats file, if one is set.
+     */
+    public void close() {
+        if (persistenceWorker != null) {
+            persistenceWorker.stop();
+        }
+        Storage.shutdown(changeTracker, bookList, loanList);
+        if (statsFilePath != null) {
+            try {
+                commandStats.writeTo(statsFilePath);
+            } catch (IOException e) {
+                Formatter.printBorderedMessage("Something went wrong while writing command statistics: " +
+                        e.getMessage());
+            }
         }
     }
 
+    /**
+     * Persists the changes made by the last command, or hands them to the persistence worker if it is running.
+     */
+    private void persistChanges() {
+        if (persistenceWorker == null) {
+            Storage.saveChanges(changeTracker, bookList, loanList);
+            return;
+        }
+        boolean hasChanges;
+        stateLock.lock();
+        try {
+            hasChanges = changeTracker.hasChanges();
+        } finally {
+            stateLock.unlock();
+        }
+        if (hasChanges) {
+            persistenceWorker.signalChanged();
+        }
+    }
 
     private void displayHelp() {
         Formatter.printSimpleMessage("""
@@ -126,7 +304,7 @@ public class InputHandler {
             | search-title KEYWORD                                                                         |
             |----------------------------------------------------------------------------------------------|
             | View Inventory:                                                                              |
-            | view-inventory                                                                               |
+            | view-inventory [size/PAGE_SIZE] [page/PAGE_NUMBER] or view-inventory next                    |
             |----------------------------------------------------------------------------------------------|
             | List Category:                                                                               |
             | list-category CATEGORY                                                                       |
@@ -141,11 +319,35 @@ public class InputHandler {
             | edit-loan BOOK_TITLE [n/BORROWER_NAME] [d/RETURN_DATE] [p/PHONE_NUMBER] [e/EMAIL]            |
             |----------------------------------------------------------------------------------------------|
             | View Loans:                                                                                  |
-            | view-loans                                                                                   |
+            | view-loans [size/PAGE_SIZE] [page/PAGE_NUMBER] or view-loans next                            |
+            |----------------------------------------------------------------------------------------------|
+            | View Loans Of A Borrower:                                                                    |
+            | loans-by [n/BORROWER_NAME] [p/PHONE_NUMBER] [e/EMAIL]                                        |
+            |----------------------------------------------------------------------------------------------|
+            | View Overdue Loans:                                                                          |
+            | overdue                                                                                      |
+            |----------------------------------------------------------------------------------------------|
+            | View Loans Due Soon:                                                                         |
+            | due-within DAYS                                                                              |
             |----------------------------------------------------------------------------------------------|
             | Delete Note:                                                                                 |
             | delete-note                                                                                  |
             |----------------------------------------------------------------------------------------------|
+            | Import Books From CSV:                                                                       |
+            | import-books FILE_PATH                                                                       |
+            |----------------------------------------------------------------------------------------------|
+            | Import Loans From CSV:                                                                       |
+            | import-loans FILE_PATH                                                                       |
+            |----------------------------------------------------------------------------------------------|
+            | Export Books To CSV Or JSON:                                                                 |
+            | export-books FILE_PATH [cat/CATEGORY] [status/on-loan|available]                             |
+            |----------------------------------------------------------------------------------------------|
+            | Export Loans To CSV Or JSON:                                                                 |
+            | export-loans FILE_PATH [cat/CATEGORY]                                                        |
+            |----------------------------------------------------------------------------------------------|
+            | View Command Statistics:                                                                     |
+            | stats                                                                                        |
+            |----------------------------------------------------------------------------------------------|
             | Display Help:                                                                                |
             | help                                                                                         |
             |----------------------------------------------------------------------------------------------|
@@ -174,20 +376,20 @@ public class InputHandler {
             String[] loanArgs = InputParser.extractAddLoanArgs(commandArgs[1]);
             Book loanedBook = bookList.searchBook(loanArgs[0]);
             if (loanedBook == null) {
-                Formatter.printBorderedMessage("Book not found in inventory: " + loanArgs[0]);
+                throw new BookNotFoundException("Book not found in inventory: " + loanArgs[0]);
             } else if (loanedBook.isOnLoan()) {
                 assert loanedBook.getTitle() != null : "Loaned book must have a title";
-                Formatter.printBorderedMessage("The book " + loanArgs[0] + " is currently out on loan.");
+                throw new InvalidArgumentException("The book " + loanArgs[0] + " is currently out on loan.");
             } else {
                 Loan loan = new Loan(loanedBook, loanArgs[1], loanArgs[2], loanArgs[3], loanArgs[4]);
                 loanList.addLoan(loan);
                 loanedBook.setOnLoan(true);
                 Formatter.printBorderedMessage("Loan added successfully for book: " + loanedBook.getTitle());
-                Storage.saveLoans(loanList);
-                Storage.saveInventory(bookList); //to update the onLoan status of the book in inventory
+                changeTracker.markLoanAdded(loan);
+                changeTracker.markBookChanged(loanedBook); //to update the onLoan status of the book in inventory
             }
         } catch (IllegalArgumentException e) {
-            Formatter.printBorderedMessage(e.getMessage());
+            throw new InvalidArgumentException(e.getMessage());
         }
     }
 
@@ -197,8 +399,10 @@ public class InputHandler {
      * @param commandArgs The parsed command arguments.
      * @throws IncorrectFormatException If the input format is invalid.
      * @throws BookNotFoundException    If the book is not found in the inventory.
+     * @throws InvalidArgumentException If the book has no note.
      */
-    private void deleteNote(String[] commandArgs) throws IncorrectFormatException, BookNotFoundException {
+    private void deleteNote(String[] commandArgs) throws IncorrectFormatException, BookNotFoundException,
+            InvalidArgumentException {
         if (commandArgs.length != 2) {
             throw new IncorrectFormatException(ErrorMessages.INVALID_FORMAT_DELETE_NOTE);
         }
@@ -211,13 +415,12 @@ public class InputHandler {
         }
 
         if (book.getNote().isEmpty()) {
-            Formatter.printBorderedMessage("No note exists for the book: " + bookTitle);
-            return;
+            throw new InvalidArgumentException("No note exists for the book: " + bookTitle);
         }
 
         book.setNote("");
         Formatter.printBorderedMessage("Note deleted for book: " + bookTitle);
-        Storage.saveInventory(bookList);
+        changeTracker.markBookChanged(book);
     }
 
     /**
@@ -225,8 +428,9 @@ public class InputHandler {
      *
      * @param commandArgs The parsed command arguments.
      * @throws IncorrectFormatException If the input format is invalid.
+     * @throws InvalidArgumentException If the book already exists or any argument is invalid.
      */
-    private void addBook(String[] commandArgs) throws IncorrectFormatException, IllegalArgumentException {
+    private void addBook(String[] commandArgs) throws IncorrectFormatException, InvalidArgumentException {
         if (commandArgs.length < 2) {
             throw new IncorrectFormatException(ErrorMessages.INVALID_FORMAT_ADD_BOOK);
         }
@@ -237,8 +441,7 @@ public class InputHandler {
 
         // Check if book already exists in the inventory
         if (bookList.searchBook(bookTitle) != null) {
-            Formatter.printBorderedMessage("Book already exists in inventory: " + bookTitle);
-            return;
+            throw new InvalidArgumentException("Book already exists in inventory: " + bookTitle);
         }
 
         // Handle optional note
@@ -249,9 +452,9 @@ public class InputHandler {
             Book newBook = new Book(bookTitle, bookArgs[1], bookArgs[2], bookArgs[3], bookArgs[4], note);
             bookList.addBook(newBook);
             Formatter.printBorderedMessage("New book added: " + newBook.getTitle());
-            Storage.saveInventory(bookList);
+            changeTracker.markBookAdded(newBook);
         } catch (IllegalArgumentException e) {
-            Formatter.printBorderedMessage(e.getMessage());
+            throw new InvalidArgumentException(e.getMessage());
         }
 
     }
@@ -271,13 +474,15 @@ public class InputHandler {
         Book toRemove = bookList.searchBook(bookTitle);
 
         if (toRemove == null) {
-            Formatter.printBorderedMessage("Book not found in inventory: " + bookTitle);
+            throw new BookNotFoundException("Book not found in inventory: " + bookTitle);
         } else {
             assert toRemove.getTitle() != null : "Book to remove must have a valid title";
-            loanList.removeLoansByBook(toRemove);
+            for (Loan removedLoan : loanList.removeLoansByBook(toRemove)) {
+                changeTracker.markLoanRemoved(removedLoan);
+            }
             bookList.removeBook(toRemove);
             Formatter.printBorderedMessage("Removed book: " + toRemove.getTitle());
-            Storage.saveInventory(bookList);
+            changeTracker.markBookRemoved(toRemove);
         }
     }
 
@@ -288,8 +493,10 @@ public class InputHandler {
      * @param commandArgs The parsed command arguments.
      * @throws IncorrectFormatException If the input format is invalid.
      * @throws BookNotFoundException    If the book is not found in the inventory.
+     * @throws InvalidArgumentException If the book is not out on loan.
      */
-    private void deleteLoan(String[] commandArgs) throws IncorrectFormatException, BookNotFoundException {
+    private void deleteLoan(String[] commandArgs) throws IncorrectFormatException, BookNotFoundException,
+            InvalidArgumentException {
         if (commandArgs.length < 2) {
             throw new IncorrectFormatException(ErrorMessages.INVALID_FORMAT_DELETE_LOAN);
         }
@@ -298,20 +505,20 @@ public class InputHandler {
             Book loanedBook = bookList.searchBook(bookTitle);
             Loan loan = loanList.findLoan(loanedBook);
             if (loanedBook == null) {
-                Formatter.printBorderedMessage("Book not found in inventory: " + bookTitle);
+                throw new BookNotFoundException("Book not found in inventory: " + bookTitle);
             } else if (!loanedBook.isOnLoan()) {
-                Formatter.printBorderedMessage("The book " + bookTitle + " is not currently out on loan.");
+                throw new InvalidArgumentException("The book " + bookTitle + " is not currently out on loan.");
             } else if (loan == null) {
-                Formatter.printBorderedMessage("No such loan with book title " + bookTitle);
+                throw new InvalidArgumentException("No such loan with book title " + bookTitle);
             } else {
                 loanList.deleteLoan(loan);
                 loanedBook.setOnLoan(false);
                 Formatter.printBorderedMessage("Loan deleted successfully for book: " + bookTitle);
-                Storage.saveLoans(loanList);
-                Storage.saveInventory(bookList); //to update the onLoan status of the book in inventory
+                changeTracker.markLoanRemoved(loan);
+                changeTracker.markBookChanged(loanedBook); //to update the onLoan status of the book in inventory
             }
         } catch (IllegalArgumentException e) {
-            Formatter.printBorderedMessage(e.getMessage());
+            throw new InvalidArgumentException(e.getMessage());
         }
 
     }
@@ -336,8 +543,9 @@ public class InputHandler {
      *
      * @param commandArgs The parsed command arguments
      * @throws IncorrectFormatException If the input format is invalid
+     * @throws InvalidArgumentException If the category is invalid
      */
-    private void listCategory(String[] commandArgs) throws IncorrectFormatException {
+    private void listCategory(String[] commandArgs) throws IncorrectFormatException, InvalidArgumentException {
         if (commandArgs.length < 2) {
             throw new IncorrectFormatException(ErrorMessages.INVALID_FORMAT_LIST_CATEGORY);
         }
@@ -345,7 +553,7 @@ public class InputHandler {
         try {
             Formatter.printBookList(bookList.findBooksByCategory(category));
         } catch (IllegalArgumentException e) {
-            Formatter.printBorderedMessage("Invalid Category: " + category);
+            throw new InvalidArgumentException("Invalid Category: " + category);
         }
     }
 
@@ -355,10 +563,10 @@ public class InputHandler {
      * @param commandArgs The parsed command arguments.
      * @throws IncorrectFormatException If the input format is invalid.
      * @throws BookNotFoundException    If the book is not found in the inventory.
-     * @throws IllegalArgumentException If the category or condition is invalid.
+     * @throws InvalidArgumentException If the category or condition is invalid.
      */
     private void updateBook(String[] commandArgs) throws IncorrectFormatException, BookNotFoundException,
-            IllegalArgumentException {
+            InvalidArgumentException {
         if (commandArgs.length < 2) {
             throw new IncorrectFormatException(ErrorMessages.INVALID_FORMAT_UPDATE_BOOK);
         }
@@ -387,12 +595,12 @@ public class InputHandler {
         }
 
         try {
-            book.setBookFields(author, category, condition, location, note);
+            bookList.updateBookFields(book, author, category, condition, location, note);
             Formatter.printBorderedMessage("Book Updated:\n" + book);
-            Storage.saveInventory(bookList);
+            changeTracker.markBookChanged(book);
         } catch
         (IllegalArgumentException e) {
-            Formatter.printBorderedMessage(e.getMessage());
+            throw new InvalidArgumentException(e.getMessage());
         }
     }
 
@@ -427,10 +635,15 @@ public class InputHandler {
             throw new BookNotFoundException("Book not found in inventory: " + oldTitle);
         }
 
-        book.setTitle(newTitle);
+        // Mark before renaming, as records are stored by title
+        changeTracker.markBookChanged(book);
+        Loan loan = loanList.findLoan(book);
+        if (loan != null) {
+            changeTracker.markLoanChanged(loan);
+        }
+
+        bookList.updateTitle(book, newTitle);
         Formatter.printBorderedMessage("Book Updated:\n" + book);
-        Storage.saveInventory(bookList);
-        Storage.saveLoans(loanList);
     }
     
 
@@ -455,7 +668,7 @@ public class InputHandler {
         if (book == null) {
             throw new BookNotFoundException("Book not found in inventory: " + bookTitle);
         } else if (!book.isOnLoan()) {
-            Formatter.printBorderedMessage("The book " + bookTitle + " is not currently out on loan.");
+            throw new InvalidArgumentException("The book " + bookTitle + " is not currently out on loan.");
         } else {
             if ((borrowerName == null || borrowerName.isBlank()) &&
                     (returnDate == null || returnDate.isBlank()) &&
@@ -465,12 +678,237 @@ public class InputHandler {
             }
                 
             try {
-                loan.setLoanFields(borrowerName, returnDate, phoneNumber, email);
+                loanList.updateLoanFields(loan, borrowerName, returnDate, phoneNumber, email);
                 Formatter.printBorderedMessage("Loan Updated:\n" + loan);
-                Storage.saveLoans(loanList);
+                changeTracker.markLoanChanged(loan);
             } catch (IllegalArgumentException e) {
-                Formatter.printBorderedMessage(e.getMessage());
+                throw new InvalidArgumentException(e.getMessage());
+            }
+        }
+    }
+
+    /**
+     * Prints the whole inventory, or one page of it if page arguments or "next" are given.
+     *
+     * @param commandArgs The parsed command arguments.
+     * @throws IncorrectFormatException If the input format is invalid.
+     * @throws InvalidArgumentException If the page is past the end of the inventory.
+     */
+    private void viewInventory(String[] commandArgs) throws IncorrectFormatException, InvalidArgumentException {
+        if (commandArgs.length < 2) {
+            bookList.viewBookList();
+            inventoryCursor.reset();
+            return;
+        }
+        inventoryCursor.select(commandArgs[1], ErrorMessages.INVALID_FORMAT_VIEW_INVENTORY);
+        try {
+            boolean hasNextPage = bookList.viewBookPage(inventoryCursor.getPageNumber(),
+                    inventoryCursor.getPageSize());
+            inventoryCursor.advance(hasNextPage);
+        } catch (IllegalArgumentException e) {
+            inventoryCursor.reset();
+            throw new InvalidArgumentException(e.getMessage());
+        }
+    }
+
+    /**
+     * Prints all loans, or one page of them if page arguments or "next" are given.
+     *
+     * @param commandArgs The parsed command arguments.
+     * @throws IncorrectFormatException If the input format is invalid.
+     * @throws InvalidArgumentException If the page is past the end of the loan list.
+     */
+    private void viewLoans(String[] commandArgs) throws IncorrectFormatException, InvalidArgumentException {
+        if (commandArgs.length < 2) {
+            loanList.viewLoanList();
+            loanCursor.reset();
+            return;
+        }
+        loanCursor.select(commandArgs[1], ErrorMessages.INVALID_FORMAT_VIEW_LOANS);
+        try {
+            boolean hasNextPage = loanList.viewLoanPage(loanCursor.getPageNumber(), loanCursor.getPageSize());
+            loanCursor.advance(hasNextPage);
+        } catch (IllegalArgumentException e) {
+            loanCursor.reset();
+            throw new InvalidArgumentException(e.getMessage());
+        }
+    }
+
+    /**
+     * Prints the loans of the borrower with the given name, phone number and/or email.
+     *
+     * @param commandArgs The parsed command arguments.
+     * @throws IncorrectFormatException If the input format is invalid.
+     */
+    private void listLoansByBorrower(String[] commandArgs) throws IncorrectFormatException {
+        if (commandArgs.length < 2) {
+            throw new IncorrectFormatException(ErrorMessages.INVALID_FORMAT_LOANS_BY);
+        }
+        String[] borrowerArgs = InputParser.extractLoansByArgs(commandArgs[1]);
+        ArrayList<Loan> borrowerLoans = loanList.findLoansByBorrower(borrowerArgs[0], borrowerArgs[1],
+                borrowerArgs[2]);
+        if (borrowerLoans.isEmpty()) {
+            Formatter.printBorderedMessage("No loans found for this borrower.");
+            return;
+        }
+        Formatter.printLoanList("Here are the loans of this borrower:", borrowerLoans);
+    }
+
+    /**
+     * Prints the count and latency percentiles of each command run in this session, and of each of its phases.
+     */
+    private void displayStats() {
+        if (commandStats.isEmpty()) {
+            Formatter.printBorderedMessage("No commands have been run yet.");
+            return;
+        }
+        Formatter.printBorderedMessage("Command latencies in this session:\n" + commandStats.format());
+    }
+
+    /**
+     * Prints the loans whose return date has passed, earliest first.
+     */
+    private void listOverdueLoans() {
+        ArrayList<Loan> overdueLoans = loanList.findOverdueLoans(LocalDate.now());
+        if (overdueLoans.isEmpty()) {
+            Formatter.printBorderedMessage("No loans are overdue.");
+            return;
+        }
+        Formatter.printLoanList("Here are the overdue loans:", overdueLoans);
+    }
+
+    /**
+     * Prints the loans due from today until the given number of days from now, earliest first.
+     *
+     * @param commandArgs The parsed command arguments.
+     * @throws IncorrectFormatException If the input format is invalid.
+     */
+    private void listLoansDueWithin(String[] commandArgs) throws IncorrectFormatException {
+        if (commandArgs.length < 2) {
+            throw new IncorrectFormatException(ErrorMessages.INVALID_FORMAT_DUE_WITHIN);
+        }
+        int days;
+        try {
+            days = Integer.parseInt(commandArgs[1].trim());
+        } catch (NumberFormatException e) {
+            throw new IncorrectFormatException(ErrorMessages.INVALID_FORMAT_DUE_WITHIN);
+        }
+        if (days < 0) {
+            throw new IncorrectFormatException(ErrorMessages.INVALID_FORMAT_DUE_WITHIN);
+        }
+
+        LocalDate today = LocalDate.now();
+        ArrayList<Loan> dueLoans = loanList.findLoansDueBetween(today, today.plusDays(days));
+        if (dueLoans.isEmpty()) {
+            Formatter.printBorderedMessage("No loans are due within " + days + " days.");
+            return;
+        }
+        Formatter.printLoanList("Here are the loans due within " + days + " days:", dueLoans);
+    }
+
+    /**
+     * Imports books from the CSV file given in the command arguments.
+     *
+     * @param commandArgs The parsed command arguments.
+     * @throws IncorrectFormatException If the input format is invalid.
+     * @throws InvalidArgumentException If the file cannot be read.
+     */
+    private void importBooks(String[] commandArgs) throws IncorrectFormatException, InvalidArgumentException {
+        if (commandArgs.length < 2 || commandArgs[1].isBlank()) {
+            throw new IncorrectFormatException(ErrorMessages.INVALID_FORMAT_IMPORT_BOOKS);
+        }
+        try {
+            csvImporter.importBooks(commandArgs[1].trim());
+        } catch (IOException e) {
+            throw new InvalidArgumentException("Something went wrong while importing books: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Imports loans from the CSV file given in the command arguments.
+     *
+     * @param commandArgs The parsed command arguments.
+     * @throws IncorrectFormatException If the input format is invalid.
+     * @throws InvalidArgumentException If the file cannot be read.
+     */
+    private void importLoans(String[] commandArgs) throws IncorrectFormatException, InvalidArgumentException {
+        if (commandArgs.length < 2 || commandArgs[1].isBlank()) {
+            throw new IncorrectFormatException(ErrorMessages.INVALID_FORMAT_IMPORT_LOANS);
+        }
+        try {
+            csvImporter.importLoans(commandArgs[1].trim());
+        } catch (IOException e) {
+            throw new InvalidArgumentException("Something went wrong while importing loans: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Exports the books matching the optional category and status filters to a CSV or JSON file.
+     *
+     * @param commandArgs The parsed command arguments.
+     * @throws IncorrectFormatException If the input format is invalid.
+     * @throws InvalidArgumentException If the category or status is invalid, or the file cannot be written.
+     */
+    private void exportBooks(String[] commandArgs) throws IncorrectFormatException, InvalidArgumentException {
+        if (commandArgs.length < 2) {
+            throw new IncorrectFormatException(ErrorMessages.INVALID_FORMAT_EXPORT_BOOKS);
+        }
+        String[] exportArgs = InputParser.extractExportBooksArgs(commandArgs[1]);
+        String filePath = exportArgs[0];
+        Predicate<Book> filter = parseCategoryFilter(exportArgs[1]);
+        if (exportArgs[2] != null) {
+            switch (exportArgs[2].toLowerCase()) {
+            case "on-loan":
+                filter = filter.and(Book::isOnLoan);
+                break;
+            case "available":
+                filter = filter.and(book -> !book.isOnLoan());
+                break;
+            default:
+                throw new InvalidArgumentException("Invalid status: " + exportArgs[2] +
+                        "\nValid statuses are: on-loan, available");
             }
         }
+        try {
+            int count = Exporter.exportBooks(bookList.getBookList(), filter, filePath);
+            Formatter.printBorderedMessage("Exported " + count + " books to " + filePath + ".");
+        } catch (IOException e) {
+            throw new InvalidArgumentException("Something went wrong while exporting books: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Exports the loans of books in the optional category to a CSV or JSON file.
+     *
+     * @param commandArgs The parsed command arguments.
+     * @throws IncorrectFormatException If the input format is invalid.
+     * @throws InvalidArgumentException If the category is invalid, or the file cannot be written.
+     */
+    private void exportLoans(String[] commandArgs) throws IncorrectFormatException, InvalidArgumentException {
+        if (commandArgs.length < 2) {
+            throw new IncorrectFormatException(ErrorMessages.INVALID_FORMAT_EXPORT_LOANS);
+        }
+        String[] exportArgs = InputParser.extractExportLoansArgs(commandArgs[1]);
+        String filePath = exportArgs[0];
+        Predicate<Book> bookFilter = parseCategoryFilter(exportArgs[1]);
+        try {
+            int count = Exporter.exportLoans(loanList.getLoanList(), loan -> bookFilter.test(loan.getBook()),
+                    filePath);
+            Formatter.printBorderedMessage("Exported " + count + " loans to " + filePath + ".");
+        } catch (IOException e) {
+            throw new InvalidArgumentException("Something went wrong while exporting loans: " + e.getMessage());
+        }
+    }
+
+    private static Predicate<Book> parseCategoryFilter(String category) throws InvalidArgumentException {
+        if (category == null) {
+            return book -> true;
+        }
+        try {
+            Category targetCategory = Category.fromString(category);
+            return book -> book.getCategory() == targetCategory;
+        } catch (IllegalArgumentException e) {
+            throw new InvalidArgumentException(e.getMessage());
+        }
     }
 }
@@ -3,6 +3,7 @@ package bookkeeper.logic;
 import bookkeeper.exceptions.IncorrectFormatException;
 import bookkeeper.exceptions.InvalidArgumentException;
 import bookkeeper.exceptions.ErrorMessages;
+import bookkeeper.model.Loan;
 
 import java.util.HashSet;
 import java.util.Set;
@@ -254,12 +255,12 @@ public class InputParser {
                 returnDate = part.substring(2).trim();
             } else if (part.startsWith("p/")) {
                 phoneNumber = part.substring(2).trim();
-                if (!phoneNumber.matches("^[986][0-9]{7}$")) {
+                if (!Loan.isValidPhoneNumber(phoneNumber)) {
                     throw new InvalidArgumentException(ErrorMessages.INVALID_PHONE_NUMBER_ADD_LOAN);
                 }
             } else if (part.startsWith("e/")) {
                 email = part.substring(2).trim();
-                if (!email.matches("^[A-Za-z0-9._%+-]+@[A-Za-z0-9.-]+\\.[A-Za-z]{2,}$")) {
+                if (!Loan.isValidEmail(email)) {
                     throw new InvalidArgumentException(ErrorMessages.INVALID_EMAIL_ADD_LOAN);
                 }
             }
@@ -277,6 +278,173 @@ public class InputParser {
         return new String[]{bookTitle, borrowerName, returnDate, phoneNumber, email};
     }
 
+    /**
+     * Extracts the arguments for the loans-by command.
+     * <p>
+     * The expected input format is: [n/BORROWER_NAME] [p/PHONE_NUMBER] [e/EMAIL], with at least one argument.
+     * Example: "n/John Doe p/98765432"
+     *
+     * @param input The user input for the loans-by command.
+     * @return An array of strings containing the arguments for the loans-by command, null where not given:
+     *      [0] - Borrower's name
+     *      [1] - Phone number
+     *      [2] - Email
+     * @throws IncorrectFormatException if the input format is invalid.
+     */
+    public static String[] extractLoansByArgs(String input) throws IncorrectFormatException {
+        String borrowerName = null;
+        String phoneNumber = null;
+        String email = null;
+
+        Set<String> processedPrefixes = new HashSet<>();
+        String[] parts = input.trim().split(" (?=\\b(?:n/\\s*|p/\\s*|e/\\s*)\\b)");
+
+        for (String rawPart : parts) {
+            String part = rawPart.trim();
+            String prefix = part.substring(0, part.indexOf("/") + 1);
+
+            if (!processedPrefixes.add(prefix)) {
+                throw new IncorrectFormatException(ErrorMessages.INVALID_FORMAT_LOANS_BY);
+            }
+
+            if (part.startsWith("n/")) {
+                borrowerName = part.substring(2).trim();
+            } else if (part.startsWith("p/")) {
+                phoneNumber = part.substring(2).trim();
+            } else if (part.startsWith("e/")) {
+                email = part.substring(2).trim();
+            } else {
+                throw new IncorrectFormatException(ErrorMessages.INVALID_FORMAT_LOANS_BY);
+            }
+        }
+
+        if ("".equals(borrowerName) || "".equals(phoneNumber) || "".equals(email)) {
+            throw new IncorrectFormatException(ErrorMessages.INVALID_FORMAT_LOANS_BY);
+        }
+
+        return new String[]{borrowerName, phoneNumber, email};
+    }
+
+    /**
+     * Extracts the page arguments for the view-inventory and view-loans commands.
+     * <p>
+     * The expected input format is: [size/PAGE_SIZE] [page/PAGE_NUMBER]
+     * Example: "size/20 page/3"
+     *
+     * @param input        The user input after the command word.
+     * @param errorMessage The message of the exception thrown if the input format is invalid.
+     * @return An array containing the page size and page number, where 0 means the argument was not given.
+     * @throws IncorrectFormatException if the input format is invalid.
+     */
+    public static int[] extractViewPageArgs(String input, String errorMessage) throws IncorrectFormatException {
+        int pageSize = 0;
+        int pageNumber = 0;
+
+        Set<String> processedPrefixes = new HashSet<>();
+        for (String part : input.trim().split("\\s+")) {
+            String prefix = part.substring(0, part.indexOf("/") + 1);
+            if (!processedPrefixes.add(prefix)) {
+                throw new IncorrectFormatException(errorMessage);
+            }
+
+            if (part.startsWith("size/")) {
+                pageSize = parsePositiveInt(part.substring(5), errorMessage);
+            } else if (part.startsWith("page/")) {
+                pageNumber = parsePositiveInt(part.substring(5), errorMessage);
+            } else {
+                throw new IncorrectFormatException(errorMessage);
+            }
+        }
+
+        return new int[]{pageSize, pageNumber};
+    }
+
+    private static int parsePositiveInt(String value, String errorMessage) throws IncorrectFormatException {
+        try {
+            int number = Integer.parseInt(value);
+            if (number <= 0) {
+                throw new IncorrectFormatException(errorMessage);
+            }
+            return number;
+        } catch (NumberFormatException e) {
+            throw new IncorrectFormatException(errorMessage);
+        }
+    }
+
+    /**
+     * Extracts the arguments for the export-books command.
+     * <p>
+     * The expected input format is: FILE_PATH [cat/CATEGORY] [status/on-loan|available]
+     * Example: "books.csv cat/fiction status/available"
+     *
+     * @param input The user input for the export-books command.
+     * @return An array of strings containing the arguments for the export-books command:
+     *      [0] - File path
+     *      [1] - Category (Optional)
+     *      [2] - Status (Optional)
+     * @throws IncorrectFormatException if the input format is invalid.
+     */
+    public static String[] extractExportBooksArgs(String input) throws IncorrectFormatException {
+        return extractExportArgs(input, " (?=\\b(?:cat/\\s*|status/\\s*)\\b)",
+                ErrorMessages.INVALID_FORMAT_EXPORT_BOOKS);
+    }
+
+    /**
+     * Extracts the arguments for the export-loans command.
+     * <p>
+     * The expected input format is: FILE_PATH [cat/CATEGORY]
+     * Example: "loans.json cat/fiction"
+     *
+     * @param input The user input for the export-loans command.
+     * @return An array of strings containing the arguments for the export-loans command:
+     *      [0] - File path
+     *      [1] - Category (Optional)
+     * @throws IncorrectFormatException if the input format is invalid.
+     */
+    public static String[] extractExportLoansArgs(String input) throws IncorrectFormatException {
+        String[] exportArgs = extractExportArgs(input, " (?=\\b(?:cat/\\s*)\\b)",
+                ErrorMessages.INVALID_FORMAT_EXPORT_LOANS);
+        return new String[]{exportArgs[0], exportArgs[1]};
+    }
+
+    private static String[] extractExportArgs(String input, String prefixPattern, String errorMessage)
+            throws IncorrectFormatException {
+        String filePath;
+        String category = null;
+        String status = null;
+
+        Set<String> processedPrefixes = new HashSet<>();
+        String[] parts = input.trim().split(prefixPattern);
+
+        if (parts.length == 0 || parts[0].startsWith("cat/") || parts[0].startsWith("status/")) {
+            throw new IncorrectFormatException(errorMessage);
+        }
+        filePath = parts[0].trim();
+
+        for (int i = 1; i < parts.length; i++) {
+            String part = parts[i].trim();
+            String prefix = part.substring(0, part.indexOf("/") + 1);
+
+            if (!processedPrefixes.add(prefix)) {
+                throw new IncorrectFormatException(errorMessage);
+            }
+
+            if (part.startsWith("cat/")) {
+                category = part.substring(4).trim();
+            } else if (part.startsWith("status/")) {
+                status = part.substring(7).trim();
+            } else {
+                throw new IncorrectFormatException(errorMessage);
+            }
+        }
+
+        if (filePath.isEmpty() || "".equals(category) || "".equals(status)) {
+            throw new IncorrectFormatException(errorMessage);
+        }
+
+        return new String[]{filePath, category, status};
+    }
+
     public static String[] extractAddNoteArgs(String input) throws IncorrectFormatException {
         String[] splitInput = input.trim().split(" note/", 2);
 
@@ -338,12 +506,12 @@ public class InputParser {
                 returnDate = part.substring(2).trim();
             } else if (part.startsWith("p/")) {
                 phoneNumber = part.substring(2).trim();
-                if (!phoneNumber.matches("^[986][0-9]{7}$")) {
+                if (!Loan.isValidPhoneNumber(phoneNumber)) {
                     throw new InvalidArgumentException(ErrorMessages.INVALID_PHONE_NUMBER_EDIT_LOAN);
                 }
             } else if (part.startsWith("e/")) {
                 email = part.substring(2).trim();
-                if (!email.matches("^[A-Za-z0-9._%+-]+@[A-Za-z0-9.-]+\\.[A-Za-z]{2,}$")) {
+                if (!Loan.isValidEmail(email)) {
                     throw new InvalidArgumentException(ErrorMessages.INVALID_EMAIL_EDIT_LOAN);
                 }
             } else {
@@ -0,0 +1,56 @@
+package bookkeeper.logic;
+
+import bookkeeper.exceptions.IncorrectFormatException;
+
+/**
+ * Remembers the page size and the next page of a paged list view, so that "next" continues where
+ * the previous page ended.
+ */
+class PageCursor {
+    static final int DEFAULT_PAGE_SIZE = 20;
+    private static final String NEXT_KEYWORD = "next";
+
+    private int pageSize = DEFAULT_PAGE_SIZE;
+    private int nextPageNumber = 1;
+    private int pageNumber = 1;
+
+    int getPageSize() {
+        return pageSize;
+    }
+
+    int getPageNumber() {
+        return pageNumber;
+    }
+
+    /**
+     * Selects the page to show from the arguments of a view command.
+     * "next" selects the page after the one shown last, and otherwise the page size and number are
+     * taken from the arguments, defaulting to the last page size and the first page.
+     *
+     * @param args         The arguments after the command word.
+     * @param errorMessage The message of the exception thrown if the arguments are invalid.
+     * @throws IncorrectFormatException If the arguments are invalid.
+     */
+    void select(String args, String errorMessage) throws IncorrectFormatException {
+        if (args.trim().equalsIgnoreCase(NEXT_KEYWORD)) {
+            pageNumber = nextPageNumber;
+            return;
+        }
+        int[] pageArgs = InputParser.extractViewPageArgs(args, errorMessage);
+        if (pageArgs[0] != 0) {
+            pageSize = pageArgs[0];
+        }
+        pageNumber = pageArgs[1] != 0 ? pageArgs[1] : 1;
+    }
+
+    /**
+     * Moves the cursor past the page just shown, back to the first page once the end is reached.
+     */
+    void advance(boolean hasNextPage) {
+        nextPageNumber = hasNextPage ? pageNumber + 1 : 1;
+    }
+
+    void reset() {
+        nextPageNumber = 1;
+    }
+}
@@ -20,6 +20,17 @@ public class Book {
         this.onLoan = false;
     }
 
+    // Constructor with already validated category and condition
+    public Book(String title, String author, Category category, Condition condition, String location, String note) {
+        this.title = title;
+        this.author = author;
+        this.category = category;
+        this.condition = condition;
+        this.note = note;
+        this.location = location;
+        this.onLoan = false;
+    }
+
     // Constructor with optional note
     public Book(String title, String author, String category, String condition, String location) {
         this(title, author, category, condition, location, ""); // Default note is an empty string
@@ -117,12 +128,24 @@ public class Book {
 
     @Override
     public String toString() {
-        return "Title: " + getTitle() + System.lineSeparator()
-                + "    Author: " + getAuthor() + System.lineSeparator()
-                + "    Category: " + getCategory() + System.lineSeparator()
-                + "    Condition: " + getCondition() + System.lineSeparator()
-                + "    On Loan: " + isOnLoan() + System.lineSeparator()
-                + "    Location: " + (isOnLoan() ? "Out on loan" : getLocation()) + System.lineSeparator()
-                + "    Note: " + (note.isEmpty() ? "No notes available" : getNote());
+        return appendTo(new StringBuilder(), System.lineSeparator()).toString();
+    }
+
+    /**
+     * Appends the same text as {@link #toString()} to the builder, without creating intermediate strings.
+     *
+     * @param builder       The builder to append to.
+     * @param lineSeparator The separator to put between the lines of the text.
+     * @return The builder.
+     */
+    public StringBuilder appendTo(StringBuilder builder, String lineSeparator) {
+        builder.append("Title: ").append(title).append(lineSeparator)
+                .append("    Author: ").append(author).append(lineSeparator)
+                .append("    Category: ").append(category).append(lineSeparator)
+                .append("    Condition: ").append(condition).append(lineSeparator)
+                .append("    On Loan: ").append(onLoan).append(lineSeparator)
+                .append("    Location: ").append(onLoan ? "Out on loan" : location).append(lineSeparator)
+                .append("    Note: ").append(note.isEmpty() ? "No notes available" : note);
+        return builder;
     }
 }
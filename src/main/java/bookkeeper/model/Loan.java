@@ -3,9 +3,13 @@ package bookkeeper.model;
 import java.time.LocalDate;
 import java.time.format.DateTimeFormatter;
 import java.time.format.DateTimeParseException;
+import java.util.regex.Pattern;
 
 public class Loan {
     private static final DateTimeFormatter DATE_FORMATTER = DateTimeFormatter.ofPattern("dd-MM-yyyy");
+    // Singapore numbers only: 8 digits, starting with 9, 8 or 6
+    private static final Pattern PHONE_NUMBER_PATTERN = Pattern.compile("^[986][0-9]{7}$");
+    private static final Pattern EMAIL_PATTERN = Pattern.compile("^[A-Za-z0-9._%+-]+@[A-Za-z0-9.-]+\\.[A-Za-z]{2,}$");
 
     private Book book;
     private String borrowerName;
@@ -21,6 +25,39 @@ public class Loan {
         this.email = email;
     }
 
+    public Loan(Book book, String borrowerName, LocalDate returnDate, String phoneNumber, String email) {
+        this(book, borrowerName, returnDate, phoneNumber, email, false);
+    }
+
+    private Loan(Book book, String borrowerName, LocalDate returnDate, String phoneNumber, String email,
+            boolean isPastDateAllowed) {
+        if (!isPastDateAllowed) {
+            validateNotPastDate(returnDate);
+        }
+        this.book = book;
+        this.returnDate = returnDate;
+        this.borrowerName = borrowerName;
+        this.phoneNumber = phoneNumber;
+        this.email = email;
+    }
+
+    /**
+     * Recreates a saved loan. Unlike the public constructors, this accepts a return date in the past,
+     * as a loan that was due when it was saved may have become overdue since.
+     */
+    public static Loan restore(Book book, String borrowerName, LocalDate returnDate, String phoneNumber,
+            String email) {
+        return new Loan(book, borrowerName, returnDate, phoneNumber, email, true);
+    }
+
+    public static boolean isValidPhoneNumber(String phoneNumber) {
+        return PHONE_NUMBER_PATTERN.matcher(phoneNumber).matches();
+    }
+
+    public static boolean isValidEmail(String email) {
+        return EMAIL_PATTERN.matcher(email).matches();
+    }
+
     public Book getBook() {
         return book;
     }
@@ -88,14 +125,44 @@ public class Loan {
 
     @Override
     public String toString() {
-        return "Title: " + getTitle() + System.lineSeparator()
-                + "    Borrower: " + getBorrowerName() + System.lineSeparator()
-                + "    Return Date: " + returnDate.format(DATE_FORMATTER) + System.lineSeparator()
-                + "    Contact Number: " + getPhoneNumber() + System.lineSeparator()
-                + "    Email: " + getEmail();
+        return appendTo(new StringBuilder(), System.lineSeparator()).toString();
+    }
+
+    /**
+     * Appends the same text as {@link #toString()} to the builder, without creating intermediate strings.
+     *
+     * @param builder       The builder to append to.
+     * @param lineSeparator The separator to put between the lines of the text.
+     * @return The builder.
+     */
+    public StringBuilder appendTo(StringBuilder builder, String lineSeparator) {
+        builder.append("Title: ").append(book.getTitle()).append(lineSeparator)
+                .append("    Borrower: ").append(borrowerName).append(lineSeparator)
+                .append("    Return Date: ");
+        DATE_FORMATTER.formatTo(returnDate, builder);
+        builder.append(lineSeparator)
+                .append("    Contact Number: ").append(phoneNumber).append(lineSeparator)
+                .append("    Email: ").append(email);
+        return builder;
     }
 
     private LocalDate parseAndValidateDate(String date) throws IllegalArgumentException {
+        LocalDate parsedDate = parseDate(date);
+
+        // Validate that the date is not in the past
+        validateNotPastDate(parsedDate);
+
+        return parsedDate;
+    }
+
+    /**
+     * Parses a return date in the DD-MM-YYYY format, without requiring it to be in the future.
+     *
+     * @param date The date to parse.
+     * @return The parsed date.
+     * @throws IllegalArgumentException If the date is not a valid date in the DD-MM-YYYY format.
+     */
+    public static LocalDate parseDate(String date) throws IllegalArgumentException {
         try {
             // Validate the format of the date string
             if (!date.matches("\\d{2}-\\d{2}-\\d{4}")) {
@@ -122,18 +189,13 @@ public class Loan {
             }
 
             // Parse the date into a LocalDate
-            LocalDate parsedDate = LocalDate.parse(date, DATE_FORMATTER);
-
-            // Validate that the date is not in the past
-            validateNotPastDate(parsedDate);
-
-            return parsedDate;
+            return LocalDate.parse(date, DATE_FORMATTER);
         } catch (DateTimeParseException e) {
             throw new IllegalArgumentException("Invalid date format. Expected format: DD-MM-YYYY");
         }
     }
 
-    private boolean isValidDayForMonth(int day, int month, int year) {
+    private static boolean isValidDayForMonth(int day, int month, int year) {
         switch (month) {
         case 2: // February
             if (isLeapYear(year)) {
@@ -151,7 +213,7 @@ public class Loan {
         }
     }
 
-    private boolean isLeapYear(int year) {
+    private static boolean isLeapYear(int year) {
         return (year % 4 == 0 && year % 100 != 0) || (year % 400 == 0);
     }
 
@@ -0,0 +1,184 @@
+package bookkeeper.storage;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.logging.ErrorManager;
+import java.util.logging.Handler;
+import java.util.logging.Level;
+import java.util.logging.LogRecord;
+
+/**
+ * Log handler that queues records and hands them to another handler on a background thread,
+ * so logging never waits for the disk.
+ * <p>
+ * The queue is bounded. When it is full, records are either dropped, in which case the number
+ * dropped is logged once the queue has room again, or the logging thread waits for room.
+ * Records are formatted by the target handler on the background thread. Parameters that are not
+ * strings, numbers or booleans are converted to strings before queuing, as the objects they refer
+ * to may change before the record is formatted.
+ */
+public class AsyncLogHandler extends Handler {
+    /**
+     * What to do with a record that arrives while the queue is full.
+     */
+    public enum OverflowPolicy {
+        DROP, BLOCK;
+
+        public static OverflowPolicy fromString(String policy) {
+            switch (policy.toLowerCase()) {
+            case "drop":
+                return DROP;
+            case "block":
+                return BLOCK;
+            default:
+                throw new IllegalArgumentException("Invalid log overflow policy: " + policy +
+                        "\nValid log overflow policies are: drop, block");
+            }
+        }
+    }
+
+    // Queued by close() to stop the writer once every record before it is written
+    private static final LogRecord END_OF_QUEUE = new LogRecord(Level.OFF, "");
+
+    private final Handler target;
+    private final BlockingQueue<LogRecord> queue;
+    private final Thread writer;
+    private final AtomicLong droppedCount = new AtomicLong();
+    private volatile OverflowPolicy overflowPolicy;
+    private volatile boolean isClosed = false;
+
+    /**
+     * @param target         Handler that formats and writes the records.
+     * @param capacity       Maximum number of records waiting to be written.
+     * @param overflowPolicy What to do with records that arrive while the queue is full.
+     */
+    public AsyncLogHandler(Handler target, int capacity, OverflowPolicy overflowPolicy) {
+        this.target = target;
+        this.queue = new ArrayBlockingQueue<>(capacity);
+        this.overflowPolicy = overflowPolicy;
+        this.writer = new Thread(this::run, "log-writer");
+        this.writer.setDaemon(true);
+        this.writer.start();
+    }
+
+    public void setOverflowPolicy(OverflowPolicy overflowPolicy) {
+        this.overflowPolicy = overflowPolicy;
+    }
+
+    /**
+     * Returns the number of records dropped because the queue was full, and not yet reported in the log.
+     */
+    public long getDroppedCount() {
+        return droppedCount.get();
+    }
+
+    @Override
+    public void publish(LogRecord record) {
+        if (isClosed || !isLoggable(record)) {
+            return;
+        }
+        snapshotParameters(record);
+        if (overflowPolicy == OverflowPolicy.DROP) {
+            if (!queue.offer(record)) {
+                droppedCount.incrementAndGet();
+            }
+            return;
+        }
+        try {
+            queue.put(record);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            droppedCount.incrementAndGet();
+        }
+    }
+
+    private static void snapshotParameters(LogRecord record) {
+        Object[] parameters = record.getParameters();
+        if (parameters == null) {
+            return;
+        }
+        for (int i = 0; i < parameters.length; i++) {
+            Object parameter = parameters[i];
+            if (!(parameter == null || parameter instanceof String || parameter instanceof Number
+                    || parameter instanceof Boolean)) {
+                parameters[i] = String.valueOf(parameter);
+            }
+        }
+    }
+
+    private void run() {
+        while (true) {
+            LogRecord record;
+            try {
+                record = queue.take();
+            } catch (InterruptedException e) {
+                continue; // Only close() stops the writer, so no queued record is lost
+            }
+            if (record == END_OF_QUEUE) {
+                return;
+            }
+            write(record);
+            long dropped = droppedCount.getAndSet(0);
+            if (dropped > 0) {
+                write(new LogRecord(Level.WARNING, "Log queue full, dropped " + dropped + " log records"));
+            }
+        }
+    }
+
+    private void write(LogRecord record) {
+        try {
+            target.publish(record);
+        } catch (RuntimeException e) {
+            // Keep the writer running, as a blocked caller would otherwise wait forever
+            reportError("Failed to write log record", e, ErrorManager.WRITE_FAILURE);
+        }
+    }
+
+    /**
+     * Flushes the target handler. Records still in the queue are written by the background thread
+     * later, and are only guaranteed to be written once the handler is closed.
+     */
+    @Override
+    public void flush() {
+        target.flush();
+    }
+
+    /**
+     * Writes every queued record, then stops the background thread and closes the target handler.
+     * Does nothing if the handler is already closed.
+     */
+    @Override
+    public synchronized void close() {
+        if (isClosed) {
+            return;
+        }
+        isClosed = true;
+        // Keep waiting when interrupted, so the queued records are not lost
+        boolean isInterrupted = false;
+        boolean isQueued = false;
+        while (!isQueued) {
+            try {
+                queue.put(END_OF_QUEUE);
+                isQueued = true;
+            } catch (InterruptedException e) {
+                isInterrupted = true;
+            }
+        }
+        while (writer.isAlive()) {
+            try {
+                writer.join();
+            } catch (InterruptedException e) {
+                isInterrupted = true;
+            }
+        }
+        if (isInterrupted) {
+            Thread.currentThread().interrupt();
+        }
+        try {
+            target.close();
+        } catch (SecurityException e) {
+            reportError("Failed to close log handler", e, ErrorManager.CLOSE_FAILURE);
+        }
+    }
+}
@@ -0,0 +1,144 @@
+package bookkeeper.storage;
+
+import bookkeeper.model.Book;
+import bookkeeper.model.Category;
+import bookkeeper.model.Condition;
+import bookkeeper.model.Loan;
+
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * Compact binary encoding of the inventory and loan list.
+ * <p>
+ * A file starts with a magic number and the record count. Strings are written as a
+ * length-prefixed UTF-8 byte array, enums as their ordinal in one byte and dates as
+ * an epoch day, so loading needs no text splitting or enum name lookups.
+ */
+class BinaryStorage {
+    private static final int BOOK_FILE_MAGIC = 0x424B4231; // "BKB1"
+    private static final int LOAN_FILE_MAGIC = 0x424B4C31; // "BKL1"
+
+    private static final Category[] CATEGORIES = Category.values();
+    private static final Condition[] CONDITIONS = Condition.values();
+
+    static void writeBooks(OutputStream outputStream, List<Book> books) throws IOException {
+        DataOutputStream out = new DataOutputStream(outputStream);
+        out.writeInt(BOOK_FILE_MAGIC);
+        out.writeInt(books.size());
+        for (Book book : books) {
+            writeString(out, book.getTitle());
+            writeString(out, book.getAuthor());
+            out.writeByte(book.getCategory().ordinal());
+            out.writeByte(book.getCondition().ordinal());
+            out.writeBoolean(book.isOnLoan());
+            writeString(out, book.getLocation());
+            writeString(out, book.getNote());
+        }
+        out.flush();
+    }
+
+    static void writeLoans(OutputStream outputStream, List<Loan> loans) throws IOException {
+        DataOutputStream out = new DataOutputStream(outputStream);
+        out.writeInt(LOAN_FILE_MAGIC);
+        out.writeInt(loans.size());
+        for (Loan loan : loans) {
+            writeString(out, loan.getTitle());
+            writeString(out, loan.getBorrowerName());
+            out.writeInt((int) loan.getReturnDate().toEpochDay());
+            writeString(out, loan.getPhoneNumber());
+            writeString(out, loan.getEmail());
+        }
+        out.flush();
+    }
+
+    /**
+     * Reads every book in the stream and passes it to the consumer, in file order.
+     *
+     * @throws IOException If the stream cannot be read or is not a valid inventory file.
+     */
+    static void readBooks(InputStream inputStream, Consumer<Book> consumer) throws IOException {
+        DataInputStream in = new DataInputStream(inputStream);
+        int count = readHeader(in, BOOK_FILE_MAGIC);
+        for (int i = 0; i < count; i++) {
+            String title = readString(in);
+            String author = readString(in);
+            Category category = CATEGORIES[readOrdinal(in, CATEGORIES.length)];
+            Condition condition = CONDITIONS[readOrdinal(in, CONDITIONS.length)];
+            in.readBoolean(); // The on-loan status is derived from the loan list
+            String location = readString(in);
+            String note = readString(in);
+            consumer.accept(new Book(title, author, category, condition, location, note));
+        }
+    }
+
+    /**
+     * Reads every loan in the stream and passes its fields to the consumer, in file order.
+     *
+     * @throws IOException If the stream cannot be read or is not a valid loan list file.
+     */
+    static void readLoans(InputStream inputStream, LoanConsumer consumer) throws IOException {
+        DataInputStream in = new DataInputStream(inputStream);
+        int count = readHeader(in, LOAN_FILE_MAGIC);
+        for (int i = 0; i < count; i++) {
+            String title = readString(in);
+            String borrowerName = readString(in);
+            LocalDate returnDate = LocalDate.ofEpochDay(in.readInt());
+            String phoneNumber = readString(in);
+            String email = readString(in);
+            consumer.accept(title, borrowerName, returnDate, phoneNumber, email);
+        }
+    }
+
+    private static int readHeader(DataInputStream in, int expectedMagic) throws IOException {
+        if (in.readInt() != expectedMagic) {
+            throw new IOException("Not a BookKeeper binary data file");
+        }
+        int count = in.readInt();
+        if (count < 0) {
+            throw new IOException("Corrupted record count: " + count);
+        }
+        return count;
+    }
+
+    private static int readOrdinal(DataInputStream in, int size) throws IOException {
+        int ordinal = in.readUnsignedByte();
+        if (ordinal >= size) {
+            throw new IOException("Corrupted enum value: " + ordinal);
+        }
+        return ordinal;
+    }
+
+    private static void writeString(DataOutputStream out, String value) throws IOException {
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        out.writeInt(bytes.length);
+        out.write(bytes);
+    }
+
+    private static String readString(DataInputStream in) throws IOException {
+        int length = in.readInt();
+        if (length < 0) {
+            throw new IOException("Corrupted string length: " + length);
+        }
+        byte[] bytes = in.readNBytes(length);
+        if (bytes.length < length) {
+            throw new EOFException("Unexpected end of file");
+        }
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Receives the fields of a loan read from a binary loan list file.
+     */
+    interface LoanConsumer {
+        void accept(String title, String borrowerName, LocalDate returnDate, String phoneNumber, String email);
+    }
+}
@@ -0,0 +1,117 @@
+package bookkeeper.storage;
+
+import bookkeeper.model.Book;
+import bookkeeper.model.Loan;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Tracks the books and loans that have been mutated since the last flush.
+ * <p>
+ * Commands mark the records they touch, and {@link Storage#saveChanges} only writes
+ * the data files that actually contain a changed record. Read-only commands never
+ * mark anything, so they never cause any disk I/O.
+ * <p>
+ * Records are stored by title on disk, so the tracker also remembers the title each
+ * record had when it was first marked (or {@code null} if it was added since the last
+ * flush). Records must therefore be marked before their title is changed.
+ */
+public class ChangeTracker {
+    private final Map<Book, String> changedBooks = new LinkedHashMap<>();
+    private final Map<Book, String> removedBooks = new LinkedHashMap<>();
+    private final Map<Loan, String> changedLoans = new LinkedHashMap<>();
+    private final Map<Loan, String> removedLoans = new LinkedHashMap<>();
+
+    public void markBookAdded(Book book) {
+        assert book != null : "Book cannot be null";
+        changedBooks.put(book, null);
+    }
+
+    public void markBookChanged(Book book) {
+        assert book != null : "Book cannot be null";
+        if (!changedBooks.containsKey(book)) {
+            changedBooks.put(book, book.getTitle());
+        }
+    }
+
+    public void markBookRemoved(Book book) {
+        assert book != null : "Book cannot be null";
+        String storedTitle = changedBooks.containsKey(book) ? changedBooks.remove(book) : book.getTitle();
+        if (storedTitle != null) { // Books added since the last flush were never stored
+            removedBooks.put(book, storedTitle);
+        }
+    }
+
+    public void markLoanAdded(Loan loan) {
+        assert loan != null : "Loan cannot be null";
+        changedLoans.put(loan, null);
+    }
+
+    public void markLoanChanged(Loan loan) {
+        assert loan != null : "Loan cannot be null";
+        if (!changedLoans.containsKey(loan)) {
+            changedLoans.put(loan, loan.getTitle());
+        }
+    }
+
+    public void markLoanRemoved(Loan loan) {
+        assert loan != null : "Loan cannot be null";
+        String storedTitle = changedLoans.containsKey(loan) ? changedLoans.remove(loan) : loan.getTitle();
+        if (storedTitle != null) { // Loans added since the last flush were never stored
+            removedLoans.put(loan, storedTitle);
+        }
+    }
+
+    /**
+     * Returns the books added or changed since the last flush, mapped to their stored title.
+     * The stored title is {@code null} for books added since the last flush.
+     */
+    public Map<Book, String> getChangedBooks() {
+        return changedBooks;
+    }
+
+    /**
+     * Returns the stored books removed since the last flush, mapped to their stored title.
+     */
+    public Map<Book, String> getRemovedBooks() {
+        return removedBooks;
+    }
+
+    /**
+     * Returns the loans added or changed since the last flush, mapped to their stored book title.
+     * The stored title is {@code null} for loans added since the last flush.
+     */
+    public Map<Loan, String> getChangedLoans() {
+        return changedLoans;
+    }
+
+    /**
+     * Returns the stored loans removed since the last flush, mapped to their stored book title.
+     */
+    public Map<Loan, String> getRemovedLoans() {
+        return removedLoans;
+    }
+
+    public boolean hasInventoryChanges() {
+        return !changedBooks.isEmpty() || !removedBooks.isEmpty();
+    }
+
+    public boolean hasLoanChanges() {
+        return !changedLoans.isEmpty() || !removedLoans.isEmpty();
+    }
+
+    public boolean hasChanges() {
+        return hasInventoryChanges() || hasLoanChanges();
+    }
+
+    /**
+     * Forgets all recorded changes. Called once the changes have been persisted.
+     */
+    public void clear() {
+        changedBooks.clear();
+        removedBooks.clear();
+        changedLoans.clear();
+        removedLoans.clear();
+    }
+}
@@ -0,0 +1,95 @@
+package bookkeeper.storage;
+
+import java.io.BufferedReader;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.Reader;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Streams records from a CSV file, one record at a time.
+ * <p>
+ * Fields are separated by commas and may be enclosed in double quotes, in which case they
+ * can contain commas, line breaks and doubled double quotes, as described in RFC 4180.
+ */
+public class CsvReader implements Closeable {
+    private static final int BUFFER_SIZE = 64 * 1024;
+    private static final int END_OF_FILE = -1;
+
+    private final BufferedReader reader;
+    private int lineNumber = 0;
+    private int recordLineNumber = 0;
+
+    public CsvReader(Reader reader) {
+        this.reader = new BufferedReader(reader, BUFFER_SIZE);
+    }
+
+    /**
+     * Returns the line number the last record read starts on, counting from 1.
+     */
+    public int getLineNumber() {
+        return recordLineNumber;
+    }
+
+    /**
+     * Reads the next record.
+     *
+     * @return The fields of the record, or {@code null} at the end of the file.
+     * @throws IOException If the file cannot be read or ends inside a quoted field.
+     */
+    public List<String> readRecord() throws IOException {
+        int c = reader.read();
+        if (c == END_OF_FILE) {
+            return null;
+        }
+        lineNumber++;
+        recordLineNumber = lineNumber;
+
+        List<String> fields = new ArrayList<>();
+        StringBuilder field = new StringBuilder();
+        boolean isQuoted = false;
+        while (true) {
+            if (isQuoted) {
+                if (c == END_OF_FILE) {
+                    throw new IOException("Unterminated quoted field on line " + recordLineNumber);
+                } else if (c == '"') {
+                    reader.mark(1);
+                    if (reader.read() == '"') {
+                        field.append('"'); // Escaped quote
+                    } else {
+                        reader.reset();
+                        isQuoted = false;
+                    }
+                } else {
+                    if (c == '\n') {
+                        lineNumber++;
+                    }
+                    field.append((char) c);
+                }
+            } else if (c == '"' && field.length() == 0) {
+                isQuoted = true;
+            } else if (c == ',') {
+                fields.add(field.toString());
+                field.setLength(0);
+            } else if (c == '\r' || c == '\n' || c == END_OF_FILE) {
+                if (c == '\r') {
+                    reader.mark(1);
+                    if (reader.read() != '\n') {
+                        reader.reset();
+                    }
+                }
+                fields.add(field.toString());
+                return fields;
+            } else {
+                field.append((char) c);
+            }
+            c = reader.read();
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        reader.close();
+    }
+}
@@ -0,0 +1,222 @@
+package bookkeeper.storage;
+
+import bookkeeper.model.Book;
+import bookkeeper.model.Loan;
+
+import java.io.BufferedWriter;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.function.Predicate;
+
+/**
+ * Streams books and loans to CSV or JSON files.
+ * <p>
+ * Records are written one at a time as the list is iterated, so exporting takes constant
+ * memory regardless of the number of records. Files ending in {@code .json} are written as a
+ * JSON array of objects, and all other files as CSV with a header row in the column order
+ * that {@code import-books} and {@code import-loans} accept.
+ */
+public class Exporter {
+    private static final String JSON_FILE_EXTENSION = ".json";
+    private static final int BUFFER_SIZE = 64 * 1024;
+    private static final DateTimeFormatter DATE_FORMATTER = DateTimeFormatter.ofPattern("dd-MM-yyyy");
+
+    private static final List<String> BOOK_COLUMNS = Arrays.asList("title", "author", "category", "condition",
+            "location", "note", "onLoan");
+    private static final List<String> LOAN_COLUMNS = Arrays.asList("title", "borrowerName", "returnDate",
+            "phoneNumber", "email");
+
+    /**
+     * Writes the books that match the filter to the given file.
+     *
+     * @param books    The books to export.
+     * @param filter   Selects the books to export.
+     * @param filePath Path of the file to write.
+     * @return The number of books exported.
+     * @throws IOException If the file cannot be written, in which case the partly written file is deleted.
+     */
+    public static int exportBooks(List<Book> books, Predicate<Book> filter, String filePath) throws IOException {
+        int count = 0;
+        try (RecordWriter writer = openWriter(filePath, BOOK_COLUMNS)) {
+            for (Book book : books) {
+                if (filter.test(book)) {
+                    writer.write(book.getTitle(), book.getAuthor(), book.getCategory().toString(),
+                            book.getCondition().toString(), book.getLocation(), book.getNote(), book.isOnLoan());
+                    count++;
+                }
+            }
+        } catch (IOException | RuntimeException e) {
+            deletePartialFile(filePath, e);
+            throw e;
+        }
+        return count;
+    }
+
+    /**
+     * Writes the loans that match the filter to the given file.
+     *
+     * @param loans    The loans to export.
+     * @param filter   Selects the loans to export.
+     * @param filePath Path of the file to write.
+     * @return The number of loans exported.
+     * @throws IOException If the file cannot be written, in which case the partly written file is deleted.
+     */
+    public static int exportLoans(List<Loan> loans, Predicate<Loan> filter, String filePath) throws IOException {
+        int count = 0;
+        try (RecordWriter writer = openWriter(filePath, LOAN_COLUMNS)) {
+            for (Loan loan : loans) {
+                if (filter.test(loan)) {
+                    writer.write(loan.getTitle(), loan.getBorrowerName(), loan.getReturnDate().format(DATE_FORMATTER),
+                            loan.getPhoneNumber(), loan.getEmail());
+                    count++;
+                }
+            }
+        } catch (IOException | RuntimeException e) {
+            deletePartialFile(filePath, e);
+            throw e;
+        }
+        return count;
+    }
+
+    /**
+     * Opens a writer on the file and writes the header. The file is closed if the header cannot be written.
+     */
+    private static RecordWriter openWriter(String filePath, List<String> columns) throws IOException {
+        Writer writer = new OutputStreamWriter(new FileOutputStream(filePath), StandardCharsets.UTF_8);
+        try {
+            if (filePath.toLowerCase().endsWith(JSON_FILE_EXTENSION)) {
+                return new JsonRecordWriter(new BufferedWriter(writer, BUFFER_SIZE), columns);
+            }
+            return new CsvRecordWriter(new CsvWriter(writer), columns);
+        } catch (IOException | RuntimeException e) {
+            try {
+                writer.close();
+            } catch (IOException closeException) {
+                e.addSuppressed(closeException);
+            }
+            throw e;
+        }
+    }
+
+    private static void deletePartialFile(String filePath, Exception cause) {
+        try {
+            Files.deleteIfExists(Path.of(filePath));
+        } catch (IOException e) {
+            cause.addSuppressed(e);
+        }
+    }
+
+    /**
+     * Writes records whose fields are in the column order given when the writer was opened.
+     */
+    private interface RecordWriter extends AutoCloseable {
+        void write(Object... fields) throws IOException;
+
+        @Override
+        void close() throws IOException;
+    }
+
+    private static class CsvRecordWriter implements RecordWriter {
+        private final CsvWriter writer;
+
+        private CsvRecordWriter(CsvWriter writer, List<String> columns) throws IOException {
+            this.writer = writer;
+            writer.writeRecord(columns);
+        }
+
+        @Override
+        public void write(Object... fields) throws IOException {
+            List<String> record = new ArrayList<>(fields.length);
+            for (Object field : fields) {
+                record.add(String.valueOf(field));
+            }
+            writer.writeRecord(record);
+        }
+
+        @Override
+        public void close() throws IOException {
+            writer.close();
+        }
+    }
+
+    /**
+     * Writes records as a JSON array of objects with one member per column.
+     * Boolean fields are written as JSON booleans and all other fields as JSON strings.
+     */
+    private static class JsonRecordWriter implements RecordWriter {
+        private final BufferedWriter writer;
+        private final List<String> columns;
+        private boolean isFirstRecord = true;
+
+        private JsonRecordWriter(BufferedWriter writer, List<String> columns) throws IOException {
+            this.writer = writer;
+            this.columns = columns;
+            writer.write('[');
+        }
+
+        @Override
+        public void write(Object... fields) throws IOException {
+            writer.write(isFirstRecord ? "\n  {" : ",\n  {");
+            isFirstRecord = false;
+            for (int i = 0; i < fields.length; i++) {
+                if (i > 0) {
+                    writer.write(", ");
+                }
+                writeString(columns.get(i));
+                writer.write(": ");
+                if (fields[i] instanceof Boolean) {
+                    writer.write(fields[i].toString());
+                } else {
+                    writeString(String.valueOf(fields[i]));
+                }
+            }
+            writer.write('}');
+        }
+
+        private void writeString(String value) throws IOException {
+            writer.write('"');
+            for (int i = 0; i < value.length(); i++) {
+                char c = value.charAt(i);
+                switch (c) {
+                case '"':
+                    writer.write("\\\"");
+                    break;
+                case '\\':
+                    writer.write("\\\\");
+                    break;
+                case '\n':
+                    writer.write("\\n");
+                    break;
+                case '\r':
+                    writer.write("\\r");
+                    break;
+                case '\t':
+                    writer.write("\\t");
+                    break;
+                default:
+                    if (c < 0x20) {
+                        writer.write(String.format("\\u%04x", (int) c));
+                    } else {
+                        writer.write(c);
+                    }
+                }
+            }
+            writer.write('"');
+        }
+
+        @Override
+        public void close() throws IOException {
+            writer.write(isFirstRecord ? "]\n" : "\n]\n");
+            writer.close();
+        }
+    }
+}
@@ -0,0 +1,187 @@
+package bookkeeper.storage;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * Append-only write-ahead journal of changes made since the last snapshot.
+ * <p>
+ * Each mutation is appended as one line, so persisting a command costs O(1) instead of
+ * rewriting the whole inventory. Compaction rotates the active journal into a separate
+ * segment, writes a fresh snapshot on a background thread and then deletes the segment.
+ * Until the snapshot is complete the rotated segment is kept, so startup can always
+ * rebuild the latest state by loading the snapshot and replaying both segments in order.
+ * Records are idempotent, so replaying a segment that is already folded into the snapshot is harmless.
+ */
+public class Journal {
+    public static final String PUT_BOOK = "PUT_BOOK";
+    public static final String DELETE_BOOK = "DELETE_BOOK";
+    public static final String PUT_LOAN = "PUT_LOAN";
+    public static final String DELETE_LOAN = "DELETE_LOAN";
+    public static final String SEPARATOR = " | ";
+
+    private final Path activePath;
+    private final Path compactingPath;
+    private final ExecutorService compactor = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "journal-compactor");
+        thread.setDaemon(true);
+        return thread;
+    });
+    private Future<?> pendingCompaction;
+    // Set by the compactor thread, and taken by the thread that reports it to the user
+    private volatile IOException compactionFailure;
+    private int recordCount;
+
+    public Journal(String filePath) {
+        this.activePath = Path.of(filePath);
+        this.compactingPath = Path.of(filePath + ".compacting");
+    }
+
+    public static String encode(String type, String payload) {
+        return type + SEPARATOR + payload;
+    }
+
+    /**
+     * Returns the number of records appended or replayed since the last compaction.
+     */
+    public int getRecordCount() {
+        return recordCount;
+    }
+
+    /**
+     * Appends the given records to the active journal and forces them to disk.
+     *
+     * @param records Encoded records, one per line.
+     * @return The number of bytes appended.
+     * @throws IOException If the journal cannot be written.
+     */
+    public long append(List<String> records) throws IOException {
+        if (records.isEmpty()) {
+            return 0;
+        }
+        Path parent = activePath.toAbsolutePath().getParent();
+        if (parent != null) {
+            Files.createDirectories(parent);
+        }
+        try (FileChannel channel = FileChannel.open(activePath, StandardOpenOption.CREATE,
+                StandardOpenOption.WRITE, StandardOpenOption.APPEND)) {
+            long startSize = channel.size();
+            BufferedWriter writer = new BufferedWriter(Channels.newWriter(channel, StandardCharsets.UTF_8));
+            for (String record : records) {
+                writer.write(record);
+                writer.write(System.lineSeparator());
+            }
+            writer.flush();
+            channel.force(false); // The records are durable once append returns
+            recordCount += records.size();
+            return channel.size() - startSize;
+        }
+    }
+
+    /**
+     * Reads all records not yet folded into the snapshot, oldest first.
+     *
+     * @return The journal records in the order they were written.
+     * @throws IOException If a journal segment cannot be read.
+     */
+    public List<String> readRecords() throws IOException {
+        List<String> records = new ArrayList<>();
+        for (Path segment : new Path[]{compactingPath, activePath}) {
+            if (Files.exists(segment)) {
+                records.addAll(Files.readAllLines(segment, StandardCharsets.UTF_8));
+            }
+        }
+        recordCount = records.size();
+        return records;
+    }
+
+    /**
+     * Rotates the active journal and writes a snapshot on the background thread.
+     * The snapshot writer must only use data captured before this call, as the
+     * caller may keep mutating its state while the snapshot is being written.
+     *
+     * @param snapshotWriter Writes the captured snapshot to disk.
+     * @return {@code false} if a previous compaction has not finished yet.
+     * @throws IOException If the active journal cannot be rotated.
+     */
+    public boolean startCompaction(SnapshotWriter snapshotWriter) throws IOException {
+        if (pendingCompaction != null && !pendingCompaction.isDone()) {
+            return false;
+        }
+        if (Files.exists(compactingPath)) {
+            // An earlier snapshot failed; keep appending to the active segment so no record is lost
+            if (Files.exists(activePath)) {
+                appendSegment(activePath, compactingPath);
+            }
+        } else if (Files.exists(activePath)) {
+            Files.move(activePath, compactingPath, StandardCopyOption.REPLACE_EXISTING);
+        }
+        recordCount = 0;
+        pendingCompaction = compactor.submit(() -> {
+            try {
+                snapshotWriter.write();
+                Files.deleteIfExists(compactingPath);
+            } catch (IOException e) {
+                compactionFailure = e;
+                throw e;
+            }
+            return null;
+        });
+        return true;
+    }
+
+    /**
+     * Blocks until the running compaction, if any, has finished.
+     *
+     * @throws IOException If the snapshot could not be written.
+     */
+    public void awaitCompaction() throws IOException {
+        if (pendingCompaction == null) {
+            return;
+        }
+        try {
+            pendingCompaction.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (ExecutionException e) {
+            throw new IOException(e.getCause().getMessage(), e.getCause());
+        }
+    }
+
+    /**
+     * Returns the failure of a background compaction that has not been taken yet, and clears it.
+     * Failures are kept until taken, even when {@link #awaitCompaction()} throws them.
+     *
+     * @return The failure, or {@code null} if no compaction failed since the last call.
+     */
+    public IOException takeCompactionFailure() {
+        IOException failure = compactionFailure;
+        compactionFailure = null;
+        return failure;
+    }
+
+    private static void appendSegment(Path source, Path target) throws IOException {
+        Files.write(target, Files.readAllBytes(source), StandardOpenOption.APPEND);
+        Files.delete(source);
+    }
+
+    /**
+     * Writes a previously captured snapshot of the inventory and loan list.
+     */
+    public interface SnapshotWriter {
+        void write() throws IOException;
+    }
+}
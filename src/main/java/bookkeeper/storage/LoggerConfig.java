@@ -1,28 +1,84 @@
 package bookkeeper.storage;
 
 import java.io.IOException;
+import java.util.HashSet;
+import java.util.Set;
 import java.util.logging.FileHandler;
+import java.util.logging.Level;
 import java.util.logging.Logger;
 import java.util.logging.SimpleFormatter;
 
+/**
+ * Sends the logs of all BookKeeper classes to {@code bookkeeper.log}.
+ * <p>
+ * Records are written by an {@link AsyncLogHandler}, so logging never waits for the disk. When
+ * its queue is full, records are dropped by default. Records below the log level are discarded by
+ * the loggers themselves, before any message is built.
+ */
 public class LoggerConfig {
-    private static FileHandler fileHandler;
+    private static final String LOG_FILE_PATH = "bookkeeper.log";
+    private static final int QUEUE_CAPACITY = 8192;
+
+    private static AsyncLogHandler asyncHandler;
+    private static Level level = Level.INFO;
+    // Held strongly, as a logger that is garbage collected loses its level and handler
+    private static final Set<Logger> configuredLoggers = new HashSet<>();
 
     static {
         try {
             // Create a FileHandler that writes to "bookkeeper.log" in append mode
-            fileHandler = new FileHandler("bookkeeper.log", true);
+            FileHandler fileHandler = new FileHandler(LOG_FILE_PATH, true);
             fileHandler.setFormatter(new SimpleFormatter()); // Use a simple text format
+            asyncHandler = new AsyncLogHandler(fileHandler, QUEUE_CAPACITY, AsyncLogHandler.OverflowPolicy.DROP);
         } catch (IOException e) {
             Logger.getLogger(LoggerConfig.class.getName()).severe("Failed to initialize FileHandler: " +
                     e.getMessage());
         }
     }
 
-    public static void configureLogger(Logger logger) {
-        if (fileHandler != null) {
-            logger.addHandler(fileHandler); // Add the shared FileHandler
-            logger.setUseParentHandlers(false); // Disable console logging if needed
+    /**
+     * Sends the records of the logger to the log file at the current log level.
+     * Configuring a logger again has no effect.
+     */
+    public static synchronized void configureLogger(Logger logger) {
+        if (asyncHandler == null || !configuredLoggers.add(logger)) {
+            return;
+        }
+        logger.addHandler(asyncHandler); // Add the shared handler
+        logger.setUseParentHandlers(false); // Disable console logging if needed
+        logger.setLevel(level);
+    }
+
+    /**
+     * Sets the level of all configured loggers, and of the loggers configured later.
+     */
+    public static synchronized void setLevel(Level newLevel) {
+        level = newLevel;
+        for (Logger logger : configuredLoggers) {
+            logger.setLevel(newLevel);
+        }
+    }
+
+    /**
+     * Parses a log level name, such as {@code info}, {@code fine} or {@code off}, ignoring case.
+     *
+     * @throws IllegalArgumentException If the name is not a log level.
+     */
+    public static Level parseLevel(String name) {
+        try {
+            return Level.parse(name.toUpperCase());
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Invalid log level: " + name +
+                    "\nValid log levels are: off, severe, warning, info, config, fine, finer, finest, all");
+        }
+    }
+
+    /**
+     * Sets what happens to log records while the queue of the log file is full.
+     */
+    public static void setOverflowPolicy(AsyncLogHandler.OverflowPolicy overflowPolicy) {
+        if (asyncHandler != null) {
+            asyncHandler.setOverflowPolicy(overflowPolicy);
         }
     }
 }
@@ -0,0 +1,122 @@
+package bookkeeper.storage;
+
+import java.io.IOException;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.function.Consumer;
+
+/**
+ * Parses the lines of a data file on the common fork-join pool.
+ * <p>
+ * Lines are read sequentially in chunks, and each chunk is parsed independently. Only a few
+ * chunks per worker are in flight at a time, so memory stays bounded by the chunk size rather
+ * than the file size. Records and warnings are passed on chunk by chunk in file order, so
+ * callers see exactly the same sequence as when parsing line by line.
+ */
+class ParallelRecordParser {
+    private static final int CHUNK_LINE_COUNT = 8192;
+    private static final int CHUNKS_IN_FLIGHT_PER_WORKER = 2;
+
+    /**
+     * Parses one line into a record, reporting why the line is skipped if it is invalid.
+     * Must be safe to call from several threads at once.
+     */
+    interface LineParser<T> {
+        /**
+         * @param line   The line to parse.
+         * @param fields Scratch array of {@link RecordReader#MAX_FIELD_COUNT} elements owned by the calling thread.
+         * @param warn   Receives the message to show if the line is skipped.
+         * @return The parsed record, or {@code null} if the line is skipped.
+         */
+        T parse(String line, String[] fields, Consumer<String> warn);
+    }
+
+    /**
+     * Parses every line read from the reader in parallel, passing the records and warnings on in file order.
+     *
+     * @param reader   Reader positioned at the first line to parse.
+     * @param parser   Parses a single line.
+     * @param warn     Receives the warnings for skipped lines.
+     * @param consumer Receives the parsed records.
+     * @throws IOException If the reader fails. Records of earlier chunks may already have been passed on.
+     */
+    static <T> void parse(RecordReader reader, LineParser<T> parser, Consumer<String> warn, Consumer<T> consumer)
+            throws IOException {
+        int maxInFlight = CHUNKS_IN_FLIGHT_PER_WORKER * ForkJoinPool.getCommonPoolParallelism();
+        Queue<CompletableFuture<Chunk<T>>> inFlight = new ArrayDeque<>();
+        List<String> lines = readChunk(reader);
+        while (!lines.isEmpty()) {
+            List<String> chunkLines = lines;
+            inFlight.add(CompletableFuture.supplyAsync(() -> parseChunk(chunkLines, parser)));
+            if (inFlight.size() >= maxInFlight) {
+                emit(inFlight.remove(), warn, consumer);
+            }
+            lines = readChunk(reader);
+        }
+        while (!inFlight.isEmpty()) {
+            emit(inFlight.remove(), warn, consumer);
+        }
+    }
+
+    private static List<String> readChunk(RecordReader reader) throws IOException {
+        List<String> lines = new ArrayList<>(CHUNK_LINE_COUNT);
+        String line;
+        while (lines.size() < CHUNK_LINE_COUNT && (line = reader.readLine()) != null) {
+            lines.add(line);
+        }
+        return lines;
+    }
+
+    private static <T> Chunk<T> parseChunk(List<String> lines, LineParser<T> parser) {
+        Chunk<T> chunk = new Chunk<>(lines.size());
+        String[] fields = new String[RecordReader.MAX_FIELD_COUNT];
+        for (int i = 0; i < lines.size(); i++) {
+            int index = i;
+            chunk.records.add(parser.parse(lines.get(i), fields, warning -> chunk.warnings.put(index, warning)));
+        }
+        return chunk;
+    }
+
+    private static <T> void emit(CompletableFuture<Chunk<T>> future, Consumer<String> warn, Consumer<T> consumer) {
+        Chunk<T> chunk;
+        try {
+            chunk = future.join();
+        } catch (CompletionException e) {
+            // Rethrow what the parser threw, as the sequential path would
+            if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            }
+            throw e;
+        }
+        for (int i = 0; i < chunk.records.size(); i++) {
+            String warning = chunk.warnings.get(i);
+            if (warning != null) {
+                warn.accept(warning);
+            }
+            T record = chunk.records.get(i);
+            if (record != null) {
+                consumer.accept(record);
+            }
+        }
+    }
+
+    /**
+     * Parse results of a run of lines. Records are {@code null} for skipped lines.
+     */
+    private static class Chunk<T> {
+        private final List<T> records;
+        // Warnings are rare, so they are kept by line index instead of alongside every record
+        private final Map<Integer, String> warnings = new HashMap<>();
+
+        private Chunk(int lineCount) {
+            records = new ArrayList<>(lineCount);
+        }
+    }
+}
@@ -0,0 +1,109 @@
+package bookkeeper.storage;
+
+import bookkeeper.list.BookList;
+import bookkeeper.list.LoanList;
+
+import java.util.concurrent.locks.Lock;
+
+/**
+ * Background thread that persists recorded changes so commands never wait for the disk.
+ * <p>
+ * Commands run while holding the state lock and signal the worker once they have recorded
+ * a change. The worker waits for the flush interval to pass, so a burst of commands is
+ * coalesced into a single write, then captures the changes under the state lock and writes
+ * them after releasing it. Changes are therefore persisted at most one flush interval after
+ * the command that made them, and {@link #stop} persists any remaining changes before returning.
+ */
+public class PersistenceWorker {
+    private final Lock stateLock;
+    private final ChangeTracker changeTracker;
+    private final BookList bookList;
+    private final LoanList loanList;
+    private final long flushIntervalMillis;
+    private final Thread thread;
+
+    private final Object signal = new Object();
+    private boolean isChanged = false;
+    private boolean isStopping = false;
+
+    /**
+     * @param stateLock           Lock held while the tracker or lists are mutated.
+     * @param changeTracker       ChangeTracker the commands record their changes in.
+     * @param bookList            BookList to persist.
+     * @param loanList            LoanList to persist.
+     * @param flushIntervalMillis Time to wait after a change before writing it.
+     */
+    public PersistenceWorker(Lock stateLock, ChangeTracker changeTracker, BookList bookList, LoanList loanList,
+            long flushIntervalMillis) {
+        this.stateLock = stateLock;
+        this.changeTracker = changeTracker;
+        this.bookList = bookList;
+        this.loanList = loanList;
+        this.flushIntervalMillis = flushIntervalMillis;
+        this.thread = new Thread(this::run, "persistence-worker");
+        this.thread.setDaemon(true);
+    }
+
+    public void start() {
+        thread.start();
+    }
+
+    /**
+     * Notifies the worker that changes were recorded.
+     */
+    public void signalChanged() {
+        synchronized (signal) {
+            isChanged = true;
+            signal.notifyAll();
+        }
+    }
+
+    /**
+     * Persists any remaining changes and stops the worker.
+     */
+    public void stop() {
+        synchronized (signal) {
+            isStopping = true;
+            signal.notifyAll();
+        }
+        try {
+            thread.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void run() {
+        boolean isLastFlush = false;
+        while (!isLastFlush) {
+            try {
+                isLastFlush = awaitFlush();
+            } catch (InterruptedException e) {
+                isLastFlush = true;
+            }
+            Storage.flushChanges(changeTracker, bookList, loanList, stateLock);
+        }
+    }
+
+    /**
+     * Waits until a change was signalled and the flush interval has passed since, or until the worker is stopped.
+     *
+     * @return {@code true} if the worker is stopping.
+     */
+    private boolean awaitFlush() throws InterruptedException {
+        synchronized (signal) {
+            while (!isChanged && !isStopping) {
+                signal.wait();
+            }
+            // Let further changes accumulate until the interval has passed
+            long deadline = System.currentTimeMillis() + flushIntervalMillis;
+            long remaining = flushIntervalMillis;
+            while (!isStopping && remaining > 0) {
+                signal.wait(remaining);
+                remaining = deadline - System.currentTimeMillis();
+            }
+            isChanged = false;
+            return isStopping;
+        }
+    }
+}
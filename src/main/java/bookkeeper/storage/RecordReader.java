@@ -0,0 +1,82 @@
+package bookkeeper.storage;
+
+import java.io.BufferedReader;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.Reader;
+
+/**
+ * Reads pipe-delimited records from a text data file.
+ * <p>
+ * Lines are read through a large buffer, and {@link #split} tokenises them on the literal
+ * {@code " | "} delimiter into a caller-owned array, so no regex is compiled or matched
+ * and each field is allocated once, already trimmed.
+ */
+class RecordReader implements Closeable {
+    /** Capacity of a field array that can hold every field of a book or loan record. */
+    static final int MAX_FIELD_COUNT = 8;
+
+    private static final String DELIMITER = " | ";
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    private final BufferedReader reader;
+
+    RecordReader(Reader reader) {
+        this.reader = new BufferedReader(reader, BUFFER_SIZE);
+    }
+
+    /**
+     * Returns the next line, or {@code null} at the end of the file.
+     */
+    String readLine() throws IOException {
+        return reader.readLine();
+    }
+
+    /**
+     * Splits the line on the record delimiter and stores the trimmed fields in the given array.
+     * Fields beyond the capacity of the array are counted but not stored.
+     * <p>
+     * The field count matches {@code line.split(" \\| ").length}: trailing empty fields are
+     * not counted, unless the line contains no delimiter at all.
+     *
+     * @param line   The line to split.
+     * @param fields Array to store the fields in.
+     * @return The number of fields in the line.
+     */
+    static int split(String line, String[] fields) {
+        int count = 0;
+        int countUpToLastNonEmpty = 0;
+        int start = 0;
+        while (true) {
+            int delimiterIndex = line.indexOf(DELIMITER, start);
+            int end = delimiterIndex < 0 ? line.length() : delimiterIndex;
+            if (count < fields.length) {
+                fields[count] = trimmedSubstring(line, start, end);
+            }
+            count++;
+            if (end > start) {
+                countUpToLastNonEmpty = count;
+            }
+            if (delimiterIndex < 0) {
+                break;
+            }
+            start = delimiterIndex + DELIMITER.length();
+        }
+        return count == 1 ? 1 : countUpToLastNonEmpty;
+    }
+
+    private static String trimmedSubstring(String line, int start, int end) {
+        while (start < end && line.charAt(start) <= ' ') {
+            start++;
+        }
+        while (end > start && line.charAt(end - 1) <= ' ') {
+            end--;
+        }
+        return line.substring(start, end);
+    }
+
+    @Override
+    public void close() throws IOException {
+        reader.close();
+    }
+}
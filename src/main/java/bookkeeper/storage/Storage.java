@@ -1,26 +1,85 @@
 package bookkeeper.storage;
 
+import bookkeeper.events.StorageEvent;
 import bookkeeper.list.BookList;
 import bookkeeper.list.LoanList;
 import bookkeeper.model.Book;
 import bookkeeper.model.Loan;
 import bookkeeper.ui.Formatter;
 
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.BufferedWriter;
+import java.io.ByteArrayOutputStream;
 import java.io.File;
-import java.io.FileWriter;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.FileReader;
 import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.time.LocalDate;
+import java.time.format.DateTimeFormatter;
 import java.util.ArrayList;
-import java.util.Scanner;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.Lock;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.function.Supplier;
 
 public class Storage {
     private static final String FOLDER_PATH = "./data";
 
     private static final String INVENTORY_FILE_NAME = "bookKeeper_bookList.txt";
     private static final String LOAN_LIST_FILE_NAME = "bookKeeper_loanList.txt";
+    private static final String JOURNAL_FILE_NAME = "bookKeeper_journal.txt";
+
+    // Number of journal records after which the journal is folded into a new snapshot
+    private static final int COMPACTION_THRESHOLD = 1000;
 
     private static String inventoryFilePath = FOLDER_PATH + "/" + INVENTORY_FILE_NAME;
     private static String loanListFilePath = FOLDER_PATH + "/" + LOAN_LIST_FILE_NAME;
+    private static String journalFilePath = FOLDER_PATH + "/" + JOURNAL_FILE_NAME;
+
+    private static final String TEXT_FILE_EXTENSION = ".txt";
+    private static final String BINARY_FILE_EXTENSION = ".bin";
+    private static final String TEMP_FILE_EXTENSION = ".tmp";
+    private static final String FORMAT_MARKER_EXTENSION = ".format";
+    private static final String BACKUP_FILE_EXTENSION = ".bak";
+    // Text data files at least this large are parsed in parallel
+    private static final long PARALLEL_LOAD_THRESHOLD = 8L * 1024 * 1024;
+    private static final int READ_BUFFER_SIZE = 64 * 1024;
+    private static final DateTimeFormatter DATE_FORMATTER = DateTimeFormatter.ofPattern("dd-MM-yyyy");
+
+    private static boolean isJournalEnabled = false;
+    private static Journal journal;
 
+    // Number of changing commands whose changes are persisted together in one durable flush
+    private static int groupCommitSize = 1;
+    private static int unflushedCommandCount = 0;
+    // Time after a change before the background persistence worker writes it, or 0 to save synchronously
+    private static long flushIntervalMillis = 0;
+
+    private static StorageFormat storageFormat = StorageFormat.TEXT;
+    // Set when a data file was loaded from the other format, so it is rewritten in the current one
+    private static boolean isConversionPending = false;
+    // Format each data file was last saved in, by text file path, as recorded by its format marker
+    private static final Map<String, StorageFormat> savedFormats = new ConcurrentHashMap<>();
+    // Set when a data file could not be read completely, so the partly loaded data never overwrites it
+    private static boolean isSavingDisabled = false;
 
     // Setter for inventoryFilePath
     public static void setInventoryFilePath(String filePath) {
@@ -32,30 +91,145 @@ public class Storage {
         loanListFilePath = filePath;
     }
 
+    // Setter for journalFilePath
+    public static void setJournalFilePath(String filePath) {
+        journalFilePath = filePath;
+        journal = null;
+    }
+
     /**
-     * Saves the given loan list to the file.
-     * Each loan is saved as a line in the file.
+     * Enables or disables journal mode, which is disabled by default.
+     * In journal mode, changes are appended to a journal instead of rewriting the data files,
+     * and the journal is periodically folded into a fresh snapshot of the data files.
+     * The data files therefore lag behind the journal until it is folded into them.
      *
-     * @param loanList LoanList containing the list of loans to save.
+     * @param isEnabled Whether changes should be journaled.
      */
-    public static void saveLoans(LoanList loanList) {
-        try {
-            // Ensure the directory exists
-            File directory = new File(FOLDER_PATH);
-            if (!directory.exists()) {
-                directory.mkdirs(); // Create the directory if it doesn't exist
-            }
+    public static void setJournalEnabled(boolean isEnabled) {
+        isJournalEnabled = isEnabled;
+    }
+
+    /**
+     * Sets the format data files are written in.
+     * Data files are always loaded from the format they were last saved in, as recorded by their
+     * format marker, so switching format converts the existing data the next time it is saved.
+     *
+     * @param format The format to write data files in.
+     */
+    public static void setStorageFormat(StorageFormat format) {
+        storageFormat = format;
+    }
+
+    /**
+     * Sets the number of changing commands whose changes are persisted together.
+     * Larger groups need fewer writes to disk, at the cost of losing up to that many
+     * commands if BookKeeper is killed before it exits.
+     *
+     * @param size The number of commands per flush. Must be at least one.
+     */
+    public static void setGroupCommitSize(int size) {
+        assert size >= 1 : "Group commit size must be at least one";
+        groupCommitSize = size;
+        unflushedCommandCount = 0;
+    }
+
+    /**
+     * Sets how long changes may stay in memory before a background thread writes them.
+     * A flush interval of 0 saves the changes synchronously after each command instead.
+     *
+     * @param millis The flush interval in milliseconds.
+     */
+    public static void setFlushInterval(long millis) {
+        assert millis >= 0 : "Flush interval cannot be negative";
+        flushIntervalMillis = millis;
+    }
 
-            // Create a FileWriter to write to the file
-            FileWriter fileWriter = new FileWriter(loanListFilePath);
+    public static long getFlushInterval() {
+        return flushIntervalMillis;
+    }
 
-            // Write each loan to the file
-            ArrayList<Loan> loans = loanList.getLoanList();
-            for (Loan loan : loans) {
-                fileWriter.write(loan.toFileString() + System.lineSeparator());
+    private static String getFilePath(String textFilePath, StorageFormat format) {
+        if (format == StorageFormat.TEXT) {
+            return textFilePath;
+        }
+        return getBasePath(textFilePath) + BINARY_FILE_EXTENSION;
+    }
+
+    private static String getBasePath(String textFilePath) {
+        return textFilePath.endsWith(TEXT_FILE_EXTENSION)
+                ? textFilePath.substring(0, textFilePath.length() - TEXT_FILE_EXTENSION.length())
+                : textFilePath;
+    }
+
+    /**
+     * Returns the path of the marker that records the format of a data file saved in binary.
+     * Data files without a marker are in text, the format BookKeeper has always saved in.
+     */
+    private static String getFormatMarkerPath(String textFilePath) {
+        return getBasePath(textFilePath) + FORMAT_MARKER_EXTENSION;
+    }
+
+    /**
+     * Returns the format of the saved data file for the given text file path, or {@code null} if
+     * the data file does not exist in either format.
+     * The format is read from the format marker. If the data file is missing in that format, which
+     * happens when BookKeeper stops between updating the marker and saving the data file, the data
+     * file in the other format is loaded instead.
+     */
+    private static StorageFormat findSavedFormat(String textFilePath) {
+        savedFormats.remove(textFilePath); // The marker may have changed since it was last read
+        StorageFormat markedFormat = getSavedFormat(textFilePath);
+        StorageFormat otherFormat = markedFormat == StorageFormat.TEXT ? StorageFormat.BINARY : StorageFormat.TEXT;
+        if (new File(getFilePath(textFilePath, markedFormat)).exists()) {
+            return markedFormat;
+        } else if (new File(getFilePath(textFilePath, otherFormat)).exists()) {
+            return otherFormat;
+        }
+        return null;
+    }
+
+    /**
+     * Returns the format recorded by the format marker of the given text file path.
+     */
+    private static StorageFormat getSavedFormat(String textFilePath) {
+        StorageFormat savedFormat = savedFormats.get(textFilePath);
+        if (savedFormat != null) {
+            return savedFormat;
+        }
+        savedFormat = StorageFormat.TEXT;
+        Path markerPath = Path.of(getFormatMarkerPath(textFilePath));
+        if (Files.exists(markerPath)) {
+            try {
+                savedFormat = StorageFormat.fromString(Files.readString(markerPath, StandardCharsets.UTF_8).trim());
+            } catch (IOException | IllegalArgumentException e) {
+                Formatter.printBorderedMessage("Something went wrong while reading format marker " + markerPath +
+                        ": " + e.getMessage() + "\nAssuming the data file is in text format.");
             }
+        }
+        savedFormats.put(textFilePath, savedFormat);
+        return savedFormat;
+    }
+
+    private static Journal getJournal() {
+        if (journal == null) {
+            journal = new Journal(journalFilePath);
+        }
+        return journal;
+    }
 
-            fileWriter.close(); // Close the FileWriter to complete the writing process
+    /**
+     * Saves the given loan list to the file.
+     * Each loan is saved as a line in the file, or as a binary record in binary format.
+     *
+     * @param loanList LoanList containing the list of loans to save.
+     */
+    public static void saveLoans(LoanList loanList) {
+        if (isSavingDisabled) {
+            return;
+        }
+        try {
+            writeDataFile(loanListFilePath, storageFormat, loanList.getLoanList().size(),
+                    out -> writeLoans(out, loanList.getLoanList()));
         } catch (IOException e) {
             Formatter.printBorderedMessage("Something went wrong while saving loans: " + e.getMessage());
         }
@@ -63,140 +237,280 @@ public class Storage {
 
     /**
      * Saves the given book list to the file.
-     * Each book is saved as a line in the file.
+     * Each book is saved as a line in the file, or as a binary record in binary format.
      *
      * @param bookList BookList containing the list of loans to save.
      */
     public static void saveInventory(BookList bookList) {
+        if (isSavingDisabled) {
+            return;
+        }
         try {
-            // Ensure the directory exists
-            File directory = new File(FOLDER_PATH);
-            if (!directory.exists()) {
-                directory.mkdirs(); // Create the directory if it doesn't exist
-            }
+            writeDataFile(inventoryFilePath, storageFormat, bookList.getBookList().size(),
+                    out -> writeInventory(out, bookList.getBookList()));
+        } catch (IOException e) {
+            Formatter.printBorderedMessage("Something went wrong while saving inventory: " + e.getMessage());
+        }
+    }
 
-            // Create a FileWriter to write to the file
-            FileWriter fileWriter = new FileWriter(inventoryFilePath);
+    private static void writeInventory(OutputStream out, List<Book> books) throws IOException {
+        if (storageFormat == StorageFormat.BINARY) {
+            BinaryStorage.writeBooks(out, books);
+        } else {
+            writeLines(out, books, Book::toFileString);
+        }
+    }
 
-            // Write each loan to the file
-            ArrayList<Book> books = bookList.getBookList();
-            for (Book book : books) {
-                fileWriter.write(book.toFileString() + System.lineSeparator());
-            }
+    private static void writeLoans(OutputStream out, List<Loan> loans) throws IOException {
+        if (storageFormat == StorageFormat.BINARY) {
+            BinaryStorage.writeLoans(out, loans);
+        } else {
+            writeLines(out, loans, Loan::toFileString);
+        }
+    }
 
-            fileWriter.close(); // Close the FileWriter to complete the writing process
-        } catch (IOException e) {
-            Formatter.printBorderedMessage("Something went wrong while saving inventory: " + e.getMessage());
+    /**
+     * Writes each record as a line.
+     */
+    private static <T> void writeLines(OutputStream out, List<T> records, Function<T, String> toFileString)
+            throws IOException {
+        Writer writer = new BufferedWriter(new OutputStreamWriter(out, Charset.defaultCharset()));
+        for (T record : records) {
+            writer.write(toFileString.apply(record));
+            writer.write(System.lineSeparator());
         }
+        writer.flush();
     }
 
-    public static ArrayList<Book> loadInventory() {
-        ArrayList<Book> bookList = new ArrayList<>();
-        File file = new File(inventoryFilePath);
+    /**
+     * Replaces the contents of the file with the output of the given writer.
+     * The output is written to a temporary file in the same directory and forced to disk,
+     * then moved over the file atomically, so a crash leaves either the old or the new contents.
+     * The temporary file is created like any other file, and takes the permissions of the file
+     * it replaces, so saving never changes who can read the data files.
+     *
+     * @param recordCount The number of records written, as reported to Flight Recorder.
+     */
+    private static void writeFile(String filePath, int recordCount, ContentWriter contentWriter)
+            throws IOException {
+        StorageEvent event = new StorageEvent();
+        event.begin();
+        // Ensure the directory exists
+        File directory = new File(filePath).getAbsoluteFile().getParentFile();
+        if (directory != null && !directory.exists()) {
+            directory.mkdirs(); // Create the directory if it doesn't exist
+        }
 
+        Path target = Path.of(filePath);
+        // Not created with Files.createTempFile, which restricts the file to its owner
+        Path tempFile = Path.of(filePath + TEMP_FILE_EXTENSION);
+        Files.deleteIfExists(tempFile); // Left behind by a crash while saving
         try {
-            // Check if the file exists
-            if (!file.exists()) {
-                Formatter.printBorderedMessage("No saved inventory found. Starting with an empty inventory.\n" +
-                        "Creating a new text file at " + inventoryFilePath + ".");
-                return bookList;
+            try (FileOutputStream fileOut = new FileOutputStream(tempFile.toFile());
+                    OutputStream out = new BufferedOutputStream(fileOut)) {
+                contentWriter.write(out);
+                out.flush();
+                fileOut.getChannel().force(true);
+            }
+            copyPermissions(target, tempFile);
+            long bytes = Files.size(tempFile);
+            try {
+                Files.move(tempFile, target, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+            } catch (AtomicMoveNotSupportedException e) {
+                Files.move(tempFile, target, StandardCopyOption.REPLACE_EXISTING);
             }
+            event.finish(StorageEvent.SAVE, filePath, recordCount, bytes);
+        } finally {
+            Files.deleteIfExists(tempFile);
+        }
+    }
 
-            // Create a Scanner to read from the file
-            Scanner scanner = new Scanner(file);
+    /**
+     * Loads the books saved in the inventory file, which starts a new session.
+     * If the file cannot be read completely, no books are loaded and saving is disabled for the session,
+     * so that the books after the failure are not lost by the next save.
+     */
+    public static ArrayList<Book> loadInventory() {
+        isSavingDisabled = false;
+        ArrayList<Book> bookList = new ArrayList<>();
+        Set<String> loadedTitles = new HashSet<>();
+        StorageFormat savedFormat = findSavedFormat(inventoryFilePath);
 
-            // Read each line and parse it into a book object
-            while (scanner.hasNextLine()) {
-                String line = scanner.nextLine();
-                Book book = parseBookFromString(line);
+        // Check if the file exists
+        if (savedFormat == null) {
+            Formatter.printBorderedMessage("No saved inventory found. Starting with an empty inventory.\n" +
+                    "Creating a new " + storageFormat.toString().toLowerCase() + " file at " +
+                    getFilePath(inventoryFilePath, storageFormat) + ".");
+            return bookList;
+        }
+        isConversionPending |= savedFormat != storageFormat;
+        String filePath = getFilePath(inventoryFilePath, savedFormat);
+        StorageEvent event = new StorageEvent();
+        event.begin();
 
-                // Skip invalid book entries
-                if (book == null) {
-                    continue;
+        try {
+            if (savedFormat == StorageFormat.BINARY) {
+                try (InputStream in = new BufferedInputStream(new FileInputStream(filePath), READ_BUFFER_SIZE)) {
+                    BinaryStorage.readBooks(in, book -> addLoadedBook(bookList, loadedTitles, book));
                 }
-
-                // Skip duplicate books
-                boolean isDuplicate = bookList.stream()
-                        .anyMatch(existingBook -> existingBook.getTitle().equals(book.getTitle()));
-                if (isDuplicate) {
-                    Formatter.printBorderedMessage("Duplicate book found and skipped: " + book.getTitle());
-                    continue;
+            } else if (new File(filePath).length() >= PARALLEL_LOAD_THRESHOLD) {
+                // Parse chunks of lines of large files in parallel while the next chunks are read
+                try (RecordReader reader = new RecordReader(new FileReader(filePath))) {
+                    ParallelRecordParser.parse(reader, Storage::parseBookFromString, Formatter::printBorderedMessage,
+                            book -> addLoadedBook(bookList, loadedTitles, book));
                 }
+            } else {
+                try (RecordReader reader = new RecordReader(new FileReader(filePath))) {
+                    String[] fields = new String[RecordReader.MAX_FIELD_COUNT];
 
-                // Add valid book to the list
-                bookList.add(book);
-            }
+                    // Read each line and parse it into a book object
+                    String line;
+                    while ((line = reader.readLine()) != null) {
+                        Book book = parseBookFromString(line, fields, Formatter::printBorderedMessage);
 
-            scanner.close(); // Close the Scanner
+                        // Skip invalid book entries
+                        if (book != null) {
+                            addLoadedBook(bookList, loadedTitles, book);
+                        }
+                    }
+                }
+            }
         } catch (IOException e) {
-            Formatter.printBorderedMessage("Something went wrong while loading inventory: " + e.getMessage());
+            bookList.clear();
+            isSavingDisabled = true;
+            Formatter.printBorderedMessage("Something went wrong while loading inventory: " + e.getMessage() +
+                    "\nNo books were loaded, and changes will not be saved, so that " + filePath +
+                    " is not overwritten.\nRestore the file, then restart BookKeeper.");
+            return bookList;
         }
 
-        Formatter.printBorderedMessage("Loaded " + bookList.size() + " books from " + inventoryFilePath + ".");
+        event.finish(StorageEvent.LOAD, filePath, bookList.size(), new File(filePath).length());
+        Formatter.printBorderedMessage("Loaded " + bookList.size() + " books from " + filePath + ".");
         return bookList;
     }
 
-    public static ArrayList<Loan> loadLoans(BookList bookList) {
-        ArrayList<Loan> loanList = new ArrayList<>();
-        File file = new File(loanListFilePath);
+    private static void addLoadedBook(ArrayList<Book> bookList, Set<String> loadedTitles, Book book) {
+        // Skip duplicate books
+        boolean isDuplicate = !loadedTitles.add(book.getTitle());
+        if (isDuplicate) {
+            Formatter.printBorderedMessage("Duplicate book found and skipped: " + book.getTitle());
+            return;
+        }
 
-        try {
-            // Check if the file exists
-            if (!file.exists()) {
-                Formatter.printBorderedMessage("No saved loans found. Starting with an empty loan list.\n" +
-                        "Creating a new text file at " + loanListFilePath + ".");
-                return loanList;
-            }
+        // Add valid book to the list
+        bookList.add(book);
+    }
 
-            // Create a Scanner to read from the file
-            Scanner scanner = new Scanner(file);
+    /**
+     * Loads the loans saved in the loan list file, for the books in the given list.
+     * If the file cannot be read completely, no loans are loaded and saving is disabled for the session,
+     * so that the loans after the failure are not lost by the next save.
+     */
+    public static ArrayList<Loan> loadLoans(BookList bookList) {
+        ArrayList<Loan> loanList = new ArrayList<>();
+        if (isSavingDisabled) {
+            Formatter.printBorderedMessage("No loans were loaded, as the inventory could not be loaded.");
+            return loanList;
+        }
+        Set<Book> loanedBooks = new HashSet<>();
+        StorageFormat savedFormat = findSavedFormat(loanListFilePath);
 
-            // Read each line and parse it into a loan object
-            while (scanner.hasNextLine()) {
-                String line = scanner.nextLine();
-                Loan loan = parseLoanFromString(line, bookList);
+        // Check if the file exists
+        if (savedFormat == null) {
+            Formatter.printBorderedMessage("No saved loans found. Starting with an empty loan list.\n" +
+                    "Creating a new " + storageFormat.toString().toLowerCase() + " file at " +
+                    getFilePath(loanListFilePath, storageFormat) + ".");
+            return loanList;
+        }
+        isConversionPending |= savedFormat != storageFormat;
+        String filePath = getFilePath(loanListFilePath, savedFormat);
+        StorageEvent event = new StorageEvent();
+        event.begin();
 
-                // Skip invalid loans
-                if (loan == null) {
-                    continue;
+        try {
+            if (savedFormat == StorageFormat.BINARY) {
+                try (InputStream in = new BufferedInputStream(new FileInputStream(filePath), READ_BUFFER_SIZE)) {
+                    BinaryStorage.readLoans(in, (title, borrowerName, returnDate, phoneNumber, email) -> {
+                        Loan loan = createLoan(bookList, title, borrowerName, returnDate, phoneNumber, email);
+                        if (loan != null) {
+                            addLoadedLoan(loanList, loanedBooks, loan);
+                        }
+                    });
                 }
-
-                // Skip duplicate loans
-                boolean isDuplicate = loanList.stream()
-                        .anyMatch(existingLoan -> existingLoan.getBook().equals(loan.getBook()));
-                if (isDuplicate) {
-                    Formatter.printBorderedMessage("Duplicate loan found and skipped: " +
-                            loan.getBook().getTitle() + " borrowed by " + loan.getBorrowerName());
-                    continue;
+            } else if (new File(filePath).length() >= PARALLEL_LOAD_THRESHOLD) {
+                // The title index is complete, so loans can be parsed in parallel as well
+                try (RecordReader reader = new RecordReader(new FileReader(filePath))) {
+                    ParallelRecordParser.parse(reader,
+                            (line, fields, warn) -> parseLoanFromString(line, fields, warn, bookList),
+                            Formatter::printBorderedMessage, loan -> addLoadedLoan(loanList, loanedBooks, loan));
                 }
+            } else {
+                try (RecordReader reader = new RecordReader(new FileReader(filePath))) {
+                    String[] fields = new String[RecordReader.MAX_FIELD_COUNT];
 
-                // Add valid loan to the list and mark the book as on loan
-                loanList.add(loan);
-                loan.getBook().setOnLoan(true);
-            }
+                    // Read each line and parse it into a loan object
+                    String line;
+                    while ((line = reader.readLine()) != null) {
+                        Loan loan = parseLoanFromString(line, fields, Formatter::printBorderedMessage, bookList);
 
-            scanner.close(); // Close the Scanner
+                        // Skip invalid loans
+                        if (loan != null) {
+                            addLoadedLoan(loanList, loanedBooks, loan);
+                        }
+                    }
+                }
+            }
         } catch (IOException e) {
-            Formatter.printBorderedMessage("Something went wrong while loading loans: " + e.getMessage());
-        } 
+            for (Loan loan : loanList) {
+                loan.getBook().setOnLoan(false);
+            }
+            loanList.clear();
+            isSavingDisabled = true;
+            Formatter.printBorderedMessage("Something went wrong while loading loans: " + e.getMessage() +
+                    "\nNo loans were loaded, and changes will not be saved, so that " + filePath +
+                    " is not overwritten.\nRestore the file, then restart BookKeeper.");
+            return loanList;
+        }
 
-        Formatter.printBorderedMessage("Loaded " + loanList.size() + " loans from " + loanListFilePath + ".");
+        event.finish(StorageEvent.LOAD, filePath, loanList.size(), new File(filePath).length());
+        Formatter.printBorderedMessage("Loaded " + loanList.size() + " loans from " + filePath + ".");
         return loanList;
     }
 
-    private static Book parseBookFromString(String line) {
-        String[] parts = line.split(" \\| ");
-        if (parts.length < 6) {
+    private static void addLoadedLoan(ArrayList<Loan> loanList, Set<Book> loanedBooks, Loan loan) {
+        // Skip duplicate loans
+        boolean isDuplicate = !loanedBooks.add(loan.getBook());
+        if (isDuplicate) {
+            Formatter.printBorderedMessage("Duplicate loan found and skipped: " +
+                    loan.getBook().getTitle() + " borrowed by " + loan.getBorrowerName());
+            return;
+        }
+
+        // Add valid loan to the list and mark the book as on loan
+        loanList.add(loan);
+        loan.getBook().setOnLoan(true);
+    }
+
+    /**
+     * Parses a book from a line of the inventory file.
+     *
+     * @param fields Scratch array of at least {@link RecordReader#MAX_FIELD_COUNT} elements to split the line into.
+     * @param warn   Receives the message to show if the line is skipped.
+     * @return The parsed book, or {@code null} if the line is invalid.
+     */
+    private static Book parseBookFromString(String line, String[] fields, Consumer<String> warn) {
+        int fieldCount = RecordReader.split(line, fields);
+        if (fieldCount < 6) {
             return null; // Invalid format
         }
 
-        String title = parts[0].trim();
-        String author = parts[1].trim();
-        String category = parts[2].trim();
-        String condition = parts[3].trim();
-        boolean onLoan = Boolean.parseBoolean(parts[4].trim());
-        String location = parts[5].trim();
-        String note = (parts.length == 7) ? parts[6].trim() : "";
+        String title = fields[0];
+        String author = fields[1];
+        String category = fields[2];
+        String condition = fields[3];
+        boolean onLoan = Boolean.parseBoolean(fields[4]);
+        String location = fields[5];
+        String note = (fieldCount == 7) ? fields[6] : "";
 
         Book book;
         // Normalize case for title, author, and category
@@ -204,71 +518,536 @@ public class Storage {
             book = new Book(title, author, category, condition, location, note);
         } catch (IllegalArgumentException e) {
             // Handle invalid book creation
-            Formatter.printBorderedMessage("Invalid book entry skipped: " + line + "\nReason: " + e.getMessage());
+            warn.accept("Invalid book entry skipped: " + line + "\nReason: " + e.getMessage());
             return null; // Skip this book
         }
         return book;
     }
 
-    private static Loan parseLoanFromString(String line, BookList bookList) {
-        String[] parts = line.split(" \\| ");
+    /**
+     * Parses a loan from a line of the loan list file.
+     *
+     * @param fields Scratch array of at least {@link RecordReader#MAX_FIELD_COUNT} elements to split the line into.
+     * @param warn   Receives the message to show if the line is skipped.
+     * @return The parsed loan, or {@code null} if the line is invalid.
+     */
+    private static Loan parseLoanFromString(String line, String[] fields, Consumer<String> warn,
+            BookList bookList) {
+        int fieldCount = RecordReader.split(line, fields);
 
-        if (parts.length < 5) {
-            Formatter.printBorderedMessage("Invalid loan format: " + line);
+        if (fieldCount < 5) {
+            warn.accept("Invalid loan format: " + line);
             return null;
         }
 
-        String title = parts[0].trim();
-        String borrowerName = parts[1].trim();
-        String returnDate = parts[2].trim();
-        String phoneNumber = parts[3].trim();
-        String email = parts[4].trim();
+        String title = fields[0];
+        String borrowerName = fields[1];
+        String returnDate = fields[2];
+        String phoneNumber = fields[3];
+        String email = fields[4];
 
         // Find the book in the inventory
         Book loanedBook = bookList.searchBook(title);
+        if (loanedBook == null) {
+            warn.accept("Invalid loan: Book not found in inventory - " + title);
+            return null; // Skip this loan
+        }
+
+        if (!hasValidContact(line, phoneNumber, email, warn)) {
+            return null;
+        }
+
+        try {
+            // Attempt to create a Loan object, keeping loans that have become overdue since they were saved
+            return Loan.restore(loanedBook, borrowerName, Loan.parseDate(returnDate), phoneNumber, email);
+        } catch (IllegalArgumentException e) {
+            // Handle invalid date or other issues in Loan creation
+            warn.accept("Invalid loan entry skipped: " + line + "\nReason: " + e.getMessage());
+            return null; // Skip this loan
+        }
+    }
+
+    private static Loan createLoan(BookList bookList, String title, String borrowerName, LocalDate returnDate,
+            String phoneNumber, String email) {
+        Book loanedBook = bookList.searchBook(title);
         if (loanedBook == null) {
             Formatter.printBorderedMessage("Invalid loan: Book not found in inventory - " + title);
             return null; // Skip this loan
         }
 
-        if (!phoneNumber.matches("^[986][0-9]{7}$")) {
-            Formatter.printBorderedMessage("Invalid loan entry skipped: " + line + "\nReason: " + 
-                    "Illegal phone number");
+        String line = title + " | " + borrowerName + " | " + returnDate.format(DATE_FORMATTER) + " | " +
+                phoneNumber + " | " + email;
+        if (!hasValidContact(line, phoneNumber, email, Formatter::printBorderedMessage)) {
             return null;
         }
 
-        if (!email.matches("^[A-Za-z0-9._%+-]+@[A-Za-z0-9.-]+\\.[A-Za-z]{2,}$")) {
-            Formatter.printBorderedMessage("Invalid loan entry skipped: " + line + "\nReason: " 
+        return Loan.restore(loanedBook, borrowerName, returnDate, phoneNumber, email);
+    }
+
+    private static boolean hasValidContact(String line, String phoneNumber, String email, Consumer<String> warn) {
+        if (!Loan.isValidPhoneNumber(phoneNumber)) {
+            warn.accept("Invalid loan entry skipped: " + line + "\nReason: " +
+                    "Illegal phone number");
+            return false;
+        }
+
+        if (!Loan.isValidEmail(email)) {
+            warn.accept("Invalid loan entry skipped: " + line + "\nReason: "
                     + "Illegal email");
-            return null;
+            return false;
+        }
+        return true;
+    }
+
+    /**
+     * Persists the changes recorded in the given tracker.
+     * Only the data files that hold a changed record are rewritten, and nothing is
+     * written at all if no changes were recorded since the last flush.
+     * In journal mode, the changes are appended to the journal instead.
+     * With a group commit size above one, changes are only persisted once that many
+     * changing commands have accumulated.
+     *
+     * @param changeTracker ChangeTracker holding the records mutated since the last flush.
+     * @param bookList      BookList to save if any book changed.
+     * @param loanList      LoanList to save if any loan changed.
+     */
+    public static void saveChanges(ChangeTracker changeTracker, BookList bookList, LoanList loanList) {
+        if (!changeTracker.hasChanges()) {
+            return;
+        }
+        unflushedCommandCount++;
+        if (unflushedCommandCount < groupCommitSize) {
+            return; // Keep accumulating changes into one flush
+        }
+        flushChanges(changeTracker, bookList, loanList);
+    }
+
+    /**
+     * Persists the changes recorded in the given tracker immediately, regardless of the group commit size.
+     */
+    private static void flushChanges(ChangeTracker changeTracker, BookList bookList, LoanList loanList) {
+        unflushedCommandCount = 0;
+        flushChanges(changeTracker, bookList, loanList, null);
+    }
+
+    /**
+     * Persists the changes recorded in the given tracker.
+     * The changes are captured while holding the given lock, and written to disk after releasing it,
+     * so the thread mutating the lists only waits for the capture and never for the disk.
+     * If the journal is due for compaction or cannot be written, a new snapshot is taken instead.
+     *
+     * @param stateLock Lock guarding the tracker and lists, or {@code null} if they are not shared.
+     */
+    static void flushChanges(ChangeTracker changeTracker, BookList bookList, LoanList loanList, Lock stateLock) {
+        PendingWrite write = runLocked(stateLock, () -> captureChanges(changeTracker, bookList, loanList));
+        boolean needsSnapshot = write.write();
+        if (needsSnapshot) {
+            runLocked(stateLock, () -> captureSnapshot(bookList, loanList)).write();
         }
+    }
 
+    private static PendingWrite runLocked(Lock stateLock, Supplier<PendingWrite> capture) {
+        if (stateLock == null) {
+            return capture.get();
+        }
+        stateLock.lock();
         try {
-            // Attempt to create a Loan object
-            return new Loan(loanedBook, borrowerName, returnDate, phoneNumber, email);
-        } catch (IllegalArgumentException e) {
-            // Handle invalid date or other issues in Loan creation
-            Formatter.printBorderedMessage("Invalid loan entry skipped: " + line + "\nReason: " + e.getMessage());
-            return null; // Skip this loan
+            return capture.get();
+        } finally {
+            stateLock.unlock();
+        }
+    }
+
+    /**
+     * Captures the changes recorded in the given tracker and clears it.
+     * In journal mode, the changes are captured as journal records. Otherwise, the
+     * data files that hold a changed record are captured in full.
+     */
+    private static PendingWrite captureChanges(ChangeTracker changeTracker, BookList bookList, LoanList loanList) {
+        if (!changeTracker.hasChanges()) {
+            return () -> false;
+        }
+        if (isSavingDisabled) {
+            changeTracker.clear(); // A data file was not loaded completely, so it must not be overwritten
+            return () -> false;
+        }
+        if (isJournalEnabled) {
+            List<String> records = encodeJournalRecords(changeTracker, loanList);
+            changeTracker.clear();
+            return () -> !appendToJournal(records) || getJournal().getRecordCount() >= COMPACTION_THRESHOLD;
+        }
+
+        byte[] loanBytes = null;
+        byte[] inventoryBytes = null;
+        try {
+            if (changeTracker.hasLoanChanges()) {
+                loanBytes = captureBytes(out -> writeLoans(out, loanList.getLoanList()));
+            }
+            if (changeTracker.hasInventoryChanges()) {
+                inventoryBytes = captureBytes(out -> writeInventory(out, bookList.getBookList()));
+            }
+        } catch (IOException e) {
+            Formatter.printBorderedMessage("Something went wrong while saving: " + e.getMessage());
+        }
+        changeTracker.clear();
+
+        byte[] capturedLoanBytes = loanBytes;
+        byte[] capturedInventoryBytes = inventoryBytes;
+        int loanCount = loanList.getLoanList().size();
+        int bookCount = bookList.getBookList().size();
+        String loanPath = loanListFilePath;
+        String inventoryPath = inventoryFilePath;
+        StorageFormat format = storageFormat;
+        return () -> {
+            if (capturedLoanBytes != null) {
+                try {
+                    writeDataFile(loanPath, format, loanCount, out -> out.write(capturedLoanBytes));
+                } catch (IOException e) {
+                    Formatter.printBorderedMessage("Something went wrong while saving loans: " + e.getMessage());
+                }
+            }
+            if (capturedInventoryBytes != null) {
+                try {
+                    writeDataFile(inventoryPath, format, bookCount, out -> out.write(capturedInventoryBytes));
+                } catch (IOException e) {
+                    Formatter.printBorderedMessage("Something went wrong while saving inventory: " +
+                            e.getMessage());
+                }
+            }
+            return false;
+        };
+    }
+
+    /**
+     * Replays the journal on top of the loaded snapshot, then folds it into a new snapshot.
+     * A journal left behind by an earlier run in journal mode is replayed even when journal mode
+     * is disabled, in which case the snapshot is written before returning.
+     *
+     * @param bookList BookList loaded from the inventory snapshot.
+     * @param loanList LoanList loaded from the loan list snapshot.
+     */
+    public static void replayJournal(BookList bookList, LoanList loanList) {
+        if (isSavingDisabled) {
+            return; // Keep the journal for the next start, as the data files were not loaded
+        }
+        List<String> records;
+        try {
+            records = getJournal().readRecords();
+        } catch (IOException e) {
+            Formatter.printBorderedMessage("Something went wrong while loading journal: " + e.getMessage());
+            return;
+        }
+        if (records.isEmpty()) {
+            if (isJournalEnabled && isConversionPending) {
+                isConversionPending = false;
+                compactJournal(bookList, loanList);
+            }
+            return;
+        }
+
+        isConversionPending = false;
+        for (String record : records) {
+            applyJournalRecord(record, bookList, loanList);
+        }
+        Formatter.printBorderedMessage("Replayed " + records.size() + " journal records from " +
+                journalFilePath + ".");
+        compactJournal(bookList, loanList);
+        if (!isJournalEnabled) {
+            // Nothing else waits for the snapshot, and later saves rewrite the data files directly
+            try {
+                getJournal().awaitCompaction();
+            } catch (IOException e) {
+                // Reported below, as the journal keeps the failure until it is taken
+            }
+            reportCompactionFailure();
+        }
+    }
+
+    /**
+     * Flushes any changes held back by group commit, folds any outstanding journal records into
+     * the data files and waits for the snapshot to be written.
+     * Data files loaded from a different format than the selected one are rewritten in the selected format.
+     * Called when BookKeeper exits.
+     *
+     * @param changeTracker ChangeTracker holding the records mutated since the last flush.
+     * @param bookList      BookList to snapshot.
+     * @param loanList      LoanList to snapshot.
+     */
+    public static void shutdown(ChangeTracker changeTracker, BookList bookList, LoanList loanList) {
+        if (changeTracker.hasChanges()) {
+            flushChanges(changeTracker, bookList, loanList);
+        }
+        if (!isJournalEnabled) {
+            if (isConversionPending) {
+                saveInventory(bookList);
+                saveLoans(loanList);
+                isConversionPending = false;
+            }
+            return;
+        }
+        try {
+            getJournal().awaitCompaction();
+            if (getJournal().getRecordCount() > 0 || isConversionPending) {
+                isConversionPending = false;
+                compactJournal(bookList, loanList);
+                getJournal().awaitCompaction();
+            }
+        } catch (IOException e) {
+            // Reported below, as the journal keeps the failure until it is taken
+        }
+        reportCompactionFailure();
+    }
+
+    /**
+     * Prints the failure of a background journal compaction that has not been reported yet.
+     * Called on the command thread, so the message never interleaves with the output of a command.
+     */
+    public static void reportCompactionFailure() {
+        if (journal == null) {
+            return;
+        }
+        IOException failure = journal.takeCompactionFailure();
+        if (failure != null) {
+            Formatter.printBorderedMessage("Something went wrong while compacting journal: " + failure.getMessage());
+        }
+    }
+
+    /**
+     * Encodes the recorded changes as journal records.
+     * Removals are written before additions, as a book may take over the title of a removed or renamed book.
+     */
+    private static List<String> encodeJournalRecords(ChangeTracker changeTracker, LoanList loanList) {
+        List<String> deletions = new ArrayList<>();
+        List<String> additions = new ArrayList<>();
+        Set<Loan> loansToPut = new LinkedHashSet<>(changeTracker.getChangedLoans().keySet());
+
+        for (String storedTitle : changeTracker.getRemovedLoans().values()) {
+            deletions.add(Journal.encode(Journal.DELETE_LOAN, storedTitle));
         }
+        for (Map.Entry<Loan, String> entry : changeTracker.getChangedLoans().entrySet()) {
+            String storedTitle = entry.getValue();
+            if (storedTitle != null && !storedTitle.equals(entry.getKey().getTitle())) {
+                deletions.add(Journal.encode(Journal.DELETE_LOAN, storedTitle));
+            }
+        }
+        for (String storedTitle : changeTracker.getRemovedBooks().values()) {
+            deletions.add(Journal.encode(Journal.DELETE_BOOK, storedTitle));
+        }
+        for (Map.Entry<Book, String> entry : changeTracker.getChangedBooks().entrySet()) {
+            Book book = entry.getKey();
+            String storedTitle = entry.getValue();
+            if (storedTitle != null && !storedTitle.equals(book.getTitle())) {
+                // Deleting the old title also drops its loan, so the loan has to be written again
+                deletions.add(Journal.encode(Journal.DELETE_BOOK, storedTitle));
+                Loan loan = loanList.findLoan(book);
+                if (loan != null) {
+                    loansToPut.add(loan);
+                }
+            }
+            additions.add(Journal.encode(Journal.PUT_BOOK, book.toFileString()));
+        }
+        for (Loan loan : loansToPut) {
+            additions.add(Journal.encode(Journal.PUT_LOAN, loan.toFileString()));
+        }
+
+        deletions.addAll(additions);
+        return deletions;
     }
 
-    public static void validateStorage(BookList bookList, LoanList loanList) {
-        ArrayList<Book> books = bookList.getBookList();
-        ArrayList<Loan> loans = loanList.getLoanList();
+    /**
+     * Appends the records to the journal.
+     *
+     * @return {@code false} if the journal could not be written.
+     */
+    private static boolean appendToJournal(List<String> records) {
+        StorageEvent event = new StorageEvent();
+        event.begin();
+        try {
+            long bytes = getJournal().append(records);
+            event.finish(StorageEvent.JOURNAL_APPEND, journalFilePath, records.size(), bytes);
+            return true;
+        } catch (IOException e) {
+            Formatter.printBorderedMessage("Something went wrong while saving journal: " + e.getMessage());
+            return false;
+        }
+    }
 
-        // Reset all books to not on loan
-        for (Book book : books) {
-            book.setOnLoan(false);
+    private static void applyJournalRecord(String record, BookList bookList, LoanList loanList) {
+        String[] parts = record.split(" \\| ", 2);
+        if (parts.length < 2) {
+            Formatter.printBorderedMessage("Invalid journal record skipped: " + record);
+            return;
         }
 
-        // Mark books as on loan based on the LoanList
-        for (Loan loan : loans) {
-            loan.getBook().setOnLoan(true);
+        String payload = parts[1];
+        switch (parts[0]) {
+        case Journal.PUT_BOOK:
+            Book book = parseBookFromString(payload, new String[RecordReader.MAX_FIELD_COUNT],
+                    Formatter::printBorderedMessage);
+            if (book == null) {
+                return;
+            }
+            Book existingBook = bookList.searchBook(book.getTitle());
+            if (existingBook == null) {
+                bookList.addBook(book);
+            } else {
+                bookList.updateBookFields(existingBook, book.getAuthor(), book.getCategory().toString(),
+                        book.getCondition().toString(), book.getLocation(), null);
+                existingBook.setNote(book.getNote());
+            }
+            break;
+        case Journal.DELETE_BOOK:
+            Book removedBook = bookList.searchBook(payload);
+            if (removedBook != null) {
+                loanList.removeLoansByBook(removedBook);
+                bookList.removeBook(removedBook);
+            }
+            break;
+        case Journal.PUT_LOAN:
+            Loan loan = parseLoanFromString(payload, new String[RecordReader.MAX_FIELD_COUNT],
+                    Formatter::printBorderedMessage, bookList);
+            if (loan == null) {
+                return;
+            }
+            Loan existingLoan = loanList.findLoan(loan.getBook());
+            if (existingLoan != null) {
+                loanList.deleteLoan(existingLoan);
+            }
+            loanList.addLoan(loan);
+            break;
+        case Journal.DELETE_LOAN:
+            Book loanedBook = bookList.searchBook(payload);
+            Loan removedLoan = loanedBook == null ? null : loanList.findLoan(loanedBook);
+            if (removedLoan != null) {
+                loanList.deleteLoan(removedLoan);
+            }
+            break;
+        default:
+            Formatter.printBorderedMessage("Invalid journal record skipped: " + record);
         }
+    }
 
-        saveLoans(loanList);
-        saveInventory(bookList);
+    /**
+     * Captures the current state in the selected format and writes it as the new snapshot in the background.
+     */
+    private static void compactJournal(BookList bookList, LoanList loanList) {
+        captureSnapshot(bookList, loanList).write();
     }
 
+    /**
+     * Captures the current state in the selected format.
+     * The returned write folds the journal into the captured state as a new snapshot.
+     */
+    private static PendingWrite captureSnapshot(BookList bookList, LoanList loanList) {
+        if (isSavingDisabled) {
+            return () -> false;
+        }
+        byte[] inventoryBytes;
+        byte[] loanBytes;
+        try {
+            inventoryBytes = captureBytes(out -> writeInventory(out, bookList.getBookList()));
+            loanBytes = captureBytes(out -> writeLoans(out, loanList.getLoanList()));
+        } catch (IOException e) {
+            Formatter.printBorderedMessage("Something went wrong while compacting journal: " + e.getMessage());
+            return () -> false;
+        }
+        String inventoryPath = inventoryFilePath;
+        String loanPath = loanListFilePath;
+        StorageFormat format = storageFormat;
+        int bookCount = bookList.getBookList().size();
+        int loanCount = loanList.getLoanList().size();
+        return () -> {
+            startCompaction(format, inventoryPath, inventoryBytes, bookCount, loanPath, loanBytes, loanCount);
+            return false;
+        };
+    }
+
+    private static void startCompaction(StorageFormat format, String inventoryPath, byte[] inventoryBytes,
+            int bookCount, String loanPath, byte[] loanBytes, int loanCount) {
+        // Runs on the compactor thread, so failures are reported by reportCompactionFailure instead of printed
+        Journal.SnapshotWriter snapshotWriter = () -> {
+            writeDataFile(inventoryPath, format, bookCount, out -> out.write(inventoryBytes));
+            writeDataFile(loanPath, format, loanCount, out -> out.write(loanBytes));
+        };
+        try {
+            if (!getJournal().startCompaction(snapshotWriter)) {
+                // Wait for the previous snapshot, as the captured state may hold changes the journal lacks
+                try {
+                    getJournal().awaitCompaction();
+                } catch (IOException e) {
+                    // The failed snapshot is reported on the command thread, and its journal segment is kept
+                }
+                getJournal().startCompaction(snapshotWriter);
+            }
+        } catch (IOException e) {
+            Formatter.printBorderedMessage("Something went wrong while compacting journal: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Replaces the data file of the given text file path with the output of the given writer, in the given format.
+     * On the first save in a different format, the format marker is updated before the data file is
+     * written, and the data file in the previous format is renamed to a {@code .bak} file afterwards,
+     * so only one data file is ever loaded.
+     *
+     * @param recordCount The number of records written, as reported to Flight Recorder.
+     */
+    private static void writeDataFile(String textFilePath, StorageFormat format, int recordCount,
+            ContentWriter contentWriter) throws IOException {
+        StorageFormat previousFormat = getSavedFormat(textFilePath);
+        if (format != previousFormat) {
+            if (format == StorageFormat.BINARY) {
+                byte[] marker = (format.toString().toLowerCase() + System.lineSeparator())
+                        .getBytes(StandardCharsets.UTF_8);
+                writeFile(getFormatMarkerPath(textFilePath), 1, out -> out.write(marker));
+            } else {
+                Files.deleteIfExists(Path.of(getFormatMarkerPath(textFilePath)));
+            }
+            savedFormats.put(textFilePath, format);
+        }
+        writeFile(getFilePath(textFilePath, format), recordCount, contentWriter);
+        if (format != previousFormat) {
+            Path previousFile = Path.of(getFilePath(textFilePath, previousFormat));
+            if (Files.exists(previousFile)) {
+                Files.move(previousFile, Path.of(previousFile + BACKUP_FILE_EXTENSION),
+                        StandardCopyOption.REPLACE_EXISTING);
+            }
+        }
+    }
+
+    private static void copyPermissions(Path source, Path target) throws IOException {
+        if (!Files.exists(source)) {
+            return;
+        }
+        try {
+            Files.setPosixFilePermissions(target, Files.getPosixFilePermissions(source));
+        } catch (UnsupportedOperationException e) {
+            // Not a POSIX file system, where a new file inherits the permissions of its directory
+        }
+    }
+
+    private static byte[] captureBytes(ContentWriter contentWriter) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        contentWriter.write(out);
+        return out.toByteArray();
+    }
+
+    /**
+     * Writes the contents of a data file to the given stream.
+     */
+    private interface ContentWriter {
+        void write(OutputStream out) throws IOException;
+    }
+
+    /**
+     * Disk writes of state captured earlier, which may run on a different thread than the capture.
+     */
+    private interface PendingWrite {
+        /**
+         * Performs the writes, reporting any failure to the user.
+         *
+         * @return {@code true} if the journal needs to be folded into a new snapshot.
+         */
+        boolean write();
+    }
 }
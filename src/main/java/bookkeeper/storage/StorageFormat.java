@@ -0,0 +1,17 @@
+package bookkeeper.storage;
+
+public enum StorageFormat {
+    TEXT, BINARY;
+
+    public static StorageFormat fromString(String format) {
+        switch (format.toLowerCase()) {
+        case "text":
+            return TEXT;
+        case "binary":
+            return BINARY;
+        default:
+            throw new IllegalArgumentException("Invalid storage format: " + format +
+                    "\nValid storage formats are: text, binary");
+        }
+    }
+}
@@ -4,11 +4,19 @@ import bookkeeper.model.Book;
 import bookkeeper.model.Loan;
 
 import java.util.ArrayList;
+import java.util.List;
 
 public class Formatter {
 
     private static final int NORMAL_INDENT = 5;
     private static final int MINOR_INDENT = 4;
+    private static final String NORMAL_INDENT_SPACES = " ".repeat(NORMAL_INDENT);
+    private static final String INDENTED_LINE_BREAK = "\n" + NORMAL_INDENT_SPACES;
+    private static final int DEFAULT_FLUSH_THRESHOLD = 64 * 1024;
+
+    // List output is rendered into this buffer and written to the console in chunks of flushThreshold characters
+    private static int flushThreshold = DEFAULT_FLUSH_THRESHOLD;
+    private static final StringBuilder listBuffer = new StringBuilder(DEFAULT_FLUSH_THRESHOLD);
 
     /**
      * Prints a horizontal line with minor indentation.
@@ -37,19 +45,45 @@ public class Formatter {
         System.out.print(message.indent(NORMAL_INDENT));
     }
 
+    /**
+     * Sets the number of characters list output is buffered up to before it is written to the console.
+     *
+     * @param flushThreshold The number of characters to buffer, at least 1.
+     */
+    public static synchronized void setFlushThreshold(int flushThreshold) {
+        assert flushThreshold > 0 : "Flush threshold must be positive";
+        Formatter.flushThreshold = flushThreshold;
+    }
+
     /**
      * Prints a list of books with normal indentation.
      *
      * @param books The list of books to print.
      */
     public static void printBookList(ArrayList<Book> books) {
+        printBookPage(books, 1, null);
+    }
+
+    /**
+     * Prints a page of a list of books with normal indentation, numbering the books from the given number.
+     *
+     * @param books       The books on the page.
+     * @param firstNumber The number of the first book on the page.
+     * @param footer      The message to print after the books, or null for none.
+     */
+    public static synchronized void printBookPage(List<Book> books, int firstNumber, String footer) {
         printLine();
         printSimpleMessage("Here are the books in your inventory:");
-        int count = 0;
+        int count = firstNumber - 1;
         for (Book book : books) {
             count += 1;
-            printSimpleMessage(count + ". " + book.toString());
-            System.out.println();
+            appendEntryNumber(count);
+            book.appendTo(listBuffer, INDENTED_LINE_BREAK);
+            appendEntryEnd();
+        }
+        flushListBuffer();
+        if (footer != null) {
+            printSimpleMessage(footer);
         }
         printLine();
     }
@@ -60,14 +94,61 @@ public class Formatter {
      * @param loans The list of loans to print.
      */
     public static void printLoanList(ArrayList<Loan> loans) {
+        printLoanPage(loans, 1, null);
+    }
+
+    /**
+     * Prints a page of a list of loans with normal indentation, numbering the loans from the given number.
+     *
+     * @param loans       The loans on the page.
+     * @param firstNumber The number of the first loan on the page.
+     * @param footer      The message to print after the loans, or null for none.
+     */
+    public static void printLoanPage(List<Loan> loans, int firstNumber, String footer) {
+        printLoans("Here are the active loans:", loans, firstNumber, footer);
+    }
+
+    /**
+     * Prints a list of loans with normal indentation under the given heading.
+     *
+     * @param heading The message to print before the loans.
+     * @param loans   The list of loans to print.
+     */
+    public static void printLoanList(String heading, List<Loan> loans) {
+        printLoans(heading, loans, 1, null);
+    }
+
+    private static synchronized void printLoans(String heading, List<Loan> loans, int firstNumber, String footer) {
         printLine();
-        printSimpleMessage("Here are the active loans:");
-        int count = 0;
+        printSimpleMessage(heading);
+        int count = firstNumber - 1;
         for (Loan loan : loans) {
             count += 1;
-            printSimpleMessage(count + ". " + loan.toString());
-            System.out.println();
+            appendEntryNumber(count);
+            loan.appendTo(listBuffer, INDENTED_LINE_BREAK);
+            appendEntryEnd();
+        }
+        flushListBuffer();
+        if (footer != null) {
+            printSimpleMessage(footer);
         }
         printLine();
     }
+
+    // Renders the same text as printSimpleMessage(count + ". " + entry) followed by System.out.println()
+    private static void appendEntryNumber(int count) {
+        listBuffer.append(NORMAL_INDENT_SPACES).append(count).append(". ");
+    }
+
+    private static void appendEntryEnd() {
+        listBuffer.append('\n').append(System.lineSeparator());
+        if (listBuffer.length() >= flushThreshold) {
+            flushListBuffer();
+        }
+    }
+
+    private static void flushListBuffer() {
+        System.out.print(listBuffer);
+        listBuffer.setLength(0);
+    }
 }
@@ -0,0 +1,102 @@
+package bookkeeper;
+
+import bookkeeper.storage.AsyncLogHandler;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.logging.Handler;
+import java.util.logging.Level;
+import java.util.logging.LogRecord;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class AsyncLogHandlerTest {
+
+    @Test
+    void close_recordsQueued_allRecordsWrittenInOrder() {
+        RecordingHandler target = new RecordingHandler();
+        AsyncLogHandler handler = new AsyncLogHandler(target, 16, AsyncLogHandler.OverflowPolicy.BLOCK);
+
+        for (int i = 0; i < 100; i++) {
+            handler.publish(new LogRecord(Level.INFO, "Record " + i));
+        }
+        handler.close();
+        handler.close();
+
+        assertEquals(100, target.messages.size());
+        assertEquals("Record 99", target.messages.get(99));
+        assertTrue(target.isClosed);
+    }
+
+    @Test
+    void publish_queueFullWithDropPolicy_droppedCountLogged() throws InterruptedException {
+        RecordingHandler target = new RecordingHandler();
+        target.release = new CountDownLatch(1);
+        AsyncLogHandler handler = new AsyncLogHandler(target, 1, AsyncLogHandler.OverflowPolicy.DROP);
+
+        handler.publish(new LogRecord(Level.INFO, "Being written"));
+        target.isWriting.await();
+        handler.publish(new LogRecord(Level.INFO, "Queued"));
+        handler.publish(new LogRecord(Level.INFO, "Dropped"));
+        assertEquals(1, handler.getDroppedCount());
+        target.release.countDown();
+        handler.close();
+
+        assertEquals(List.of("Being written", "Log queue full, dropped 1 log records", "Queued"), target.messages);
+    }
+
+    @Test
+    void publish_mutableParameter_formattedAsPublished() {
+        RecordingHandler target = new RecordingHandler();
+        AsyncLogHandler handler = new AsyncLogHandler(target, 16, AsyncLogHandler.OverflowPolicy.BLOCK);
+        StringBuilder parameter = new StringBuilder("before");
+
+        LogRecord record = new LogRecord(Level.INFO, "Value: {0}");
+        record.setParameters(new Object[]{parameter});
+        handler.publish(record);
+        parameter.replace(0, parameter.length(), "after");
+        handler.close();
+
+        assertEquals("before", target.parameters.get(0));
+    }
+
+    /**
+     * Handler that keeps the records written to it, optionally waiting for a latch before returning.
+     */
+    private static class RecordingHandler extends Handler {
+        private final List<String> messages = new ArrayList<>();
+        private final List<Object> parameters = new ArrayList<>();
+        private final CountDownLatch isWriting = new CountDownLatch(1);
+        private CountDownLatch release;
+        private boolean isClosed = false;
+
+        @Override
+        public void publish(LogRecord record) {
+            messages.add(record.getMessage());
+            if (record.getParameters() != null) {
+                parameters.add(record.getParameters()[0]);
+            }
+            isWriting.countDown();
+            if (release != null) {
+                try {
+                    release.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                release = null;
+            }
+        }
+
+        @Override
+        public void flush() {
+        }
+
+        @Override
+        public void close() {
+            isClosed = true;
+        }
+    }
+}
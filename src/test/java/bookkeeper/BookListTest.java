@@ -4,6 +4,7 @@ import bookkeeper.exceptions.IncorrectFormatException;
 import bookkeeper.list.BookList;
 import bookkeeper.logic.InputParser;
 import bookkeeper.model.Book;
+import bookkeeper.ui.Formatter;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 
@@ -17,6 +18,7 @@ import static org.junit.jupiter.api.Assertions.assertTrue;
 import java.io.ByteArrayOutputStream;
 import java.io.PrintStream;
 import java.util.ArrayList;
+import java.util.List;
 
 class BookListTest {
     private BookList bookList;
@@ -68,6 +70,39 @@ class BookListTest {
         assertNotNull(bookList.searchBook("Book Two"));
     }
 
+    @Test
+    void removeBook_mostBooksRemoved_remainingBooksKeepListOrder() {
+        ArrayList<Book> books = new ArrayList<>();
+        for (int i = 0; i < 10; i++) {
+            Book book = new Book("Book " + i, "Author", i % 2 == 0 ? "Fiction" : "Non-Fiction", "Good", "Shelf 1");
+            books.add(book);
+            bookList.addBook(book);
+        }
+
+        // Enough removals to compact the list in between
+        for (int i : new int[]{1, 2, 4, 5, 7, 8}) {
+            bookList.removeBook(books.get(i));
+        }
+        bookList.removeBook(books.get(1)); // Removing a book twice has no effect
+
+        assertEquals(List.of(books.get(0), books.get(3), books.get(6), books.get(9)), bookList.getBookList());
+        assertEquals(List.of(books.get(0), books.get(6)), bookList.findBooksByCategory("Fiction"));
+        assertEquals(List.of(books.get(3), books.get(9)), bookList.findBooksByCategory("Non-Fiction"));
+        assertEquals(List.of(books.get(0), books.get(3), books.get(6), books.get(9)),
+                bookList.findBooksByKeyword("Book"));
+    }
+
+    @Test
+    void testUpdateTitle() {
+        bookList.addBook(book1);
+        bookList.addBook(book2);
+
+        bookList.updateTitle(book1, "Book Three");
+        assertNull(bookList.searchBook("Book One"));
+        assertEquals(book1, bookList.searchBook("Book Three"));
+        assertEquals(book2, bookList.searchBook("Book Two"));
+    }
+
     @Test
     void testFindBooksByKeyword() {
         bookList.addBook(book1);
@@ -81,6 +116,24 @@ class BookListTest {
         assertEquals(foundBooks.get(1), book3);
     }
 
+    @Test
+    void testFindBooksByKeyword_titleUpdatedAndRemoved() {
+        bookList.addBook(book1);
+        bookList.addBook(book2);
+        bookList.addBook(book3);
+
+        assertEquals(2, bookList.findBooksByKeyword("BOOK").size());
+        bookList.updateTitle(book1, "The Potter Diaries");
+        ArrayList<Book> foundBooks = bookList.findBooksByKeyword("potter");
+        assertEquals(2, foundBooks.size());
+        assertEquals(book1, foundBooks.get(0));
+        assertEquals(book3, foundBooks.get(1));
+
+        bookList.removeBook(book3);
+        assertEquals(1, bookList.findBooksByKeyword("potter").size());
+        assertTrue(bookList.findBooksByKeyword("Book One").isEmpty());
+    }
+
     @Test
     void testFindBooksByCategory() {
         Book book4 = new Book("Book Four", "Author Four", "nonfiction", "Good", "Shelf 4");
@@ -97,6 +150,20 @@ class BookListTest {
         assertTrue(foundBooks.contains(book4));
     }
 
+    @Test
+    void testFindBooksByCategory_categoryUpdated() {
+        bookList.addBook(book1);
+        bookList.addBook(book2);
+        bookList.addBook(book3);
+
+        bookList.updateBookFields(book3, null, "Fiction", null, null, null);
+        ArrayList<Book> fictionBooks = bookList.findBooksByCategory("fiction");
+        assertEquals(2, fictionBooks.size());
+        assertEquals(book1, fictionBooks.get(0));
+        assertEquals(book3, fictionBooks.get(1));
+        assertEquals(1, bookList.findBooksByCategory("nonfiction").size());
+    }
+
     @Test 
     void viewBookList_emptyBookList() {
         bookList.viewBookList();
@@ -112,6 +179,25 @@ class BookListTest {
         assertTrue(output.contains("Book One"));
     }
 
+    @Test
+    void printBookList_smallFlushThreshold_sameOutputAsUnbufferedEntries() {
+        book2.setNote("Signed copy");
+        ArrayList<Book> books = new ArrayList<>(List.of(book1, book2));
+        Formatter.setFlushThreshold(1);
+        try {
+            Formatter.printBookList(books);
+        } finally {
+            Formatter.setFlushThreshold(64 * 1024);
+        }
+
+        String line = "____________________________________________________________________".indent(4);
+        String expected = line + System.lineSeparator() + "Here are the books in your inventory:".indent(5)
+                + ("1. " + book1).indent(5) + System.lineSeparator()
+                + ("2. " + book2).indent(5) + System.lineSeparator()
+                + line + System.lineSeparator();
+        assertEquals(expected, outputStreamCaptor.toString());
+    }
+
     @Test
     void extractAddBookArgs_authorWithSlash_success() throws IncorrectFormatException {
         String[] arguments = InputParser.extractAddBookArgs("The Great Gatsby a/F. Scott s/o Fitzgerald " +
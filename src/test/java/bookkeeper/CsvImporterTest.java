@@ -0,0 +1,139 @@
+package bookkeeper;
+
+import bookkeeper.list.BookList;
+import bookkeeper.list.LoanList;
+import bookkeeper.logic.CsvImporter;
+import bookkeeper.model.Book;
+import bookkeeper.model.Loan;
+import bookkeeper.storage.ChangeTracker;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.File;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class CsvImporterTest {
+    private static final String TEST_FOLDER_PATH = "./test_data";
+    private static final String TEST_IMPORT_FILE_PATH = TEST_FOLDER_PATH + "/test_import.csv";
+    private static final String TEST_REJECT_FILE_PATH = TEST_FOLDER_PATH + "/test_import.rejects.csv";
+
+    private BookList bookList;
+    private LoanList loanList;
+    private ChangeTracker changeTracker;
+    private CsvImporter csvImporter;
+
+    @BeforeEach
+    void setUp() {
+        new File(TEST_FOLDER_PATH).mkdirs();
+        bookList = new BookList("Test Inventory", new ArrayList<>());
+        loanList = new LoanList("Test Loan List", new ArrayList<>());
+        changeTracker = new ChangeTracker();
+        csvImporter = new CsvImporter(bookList, loanList, changeTracker);
+    }
+
+    @AfterEach
+    void tearDown() {
+        new File(TEST_IMPORT_FILE_PATH).delete();
+        new File(TEST_REJECT_FILE_PATH).delete();
+    }
+
+    @Test
+    void importBooks_validAndInvalidRows_validRowsImportedAndInvalidRowsRejected() throws IOException {
+        writeImportFile("title,author,category,condition,location,note\n" +
+                "The Great Gatsby,F. Scott Fitzgerald,Fiction,Good,Shelf 1,\"Classic, novel\"\n" +
+                "The Great Gatsby,F. Scott Fitzgerald,Fiction,Good,Shelf 1\n" +
+                "Dune,Frank Herbert,Unknown,Good,Shelf 2\n" +
+                "To Kill a Mockingbird,Harper Lee,Fiction,Fair,Shelf 3\n");
+
+        csvImporter.importBooks(TEST_IMPORT_FILE_PATH);
+
+        assertEquals(2, bookList.getBookList().size());
+        assertEquals("Classic, novel", bookList.searchBook("The Great Gatsby").getNote());
+        assertTrue(changeTracker.hasInventoryChanges());
+
+        List<String> rejects = Files.readAllLines(Path.of(TEST_REJECT_FILE_PATH));
+        assertEquals("title,author,category,condition,location,note,reason", rejects.get(0));
+        assertEquals("The Great Gatsby,F. Scott Fitzgerald,Fiction,Good,Shelf 1," +
+                "Book already exists in inventory: The Great Gatsby", rejects.get(1));
+        assertTrue(rejects.get(2).startsWith("Dune,Frank Herbert,Unknown,Good,Shelf 2,\"Invalid category"));
+    }
+
+    @Test
+    void importLoans_bookAlreadyOnLoan_onlyFirstLoanImported() throws IOException {
+        Book book = new Book("The Great Gatsby", "F. Scott Fitzgerald", "Fiction", "Good", "Shelf 1");
+        bookList.addBook(book);
+        String futureDate = LocalDate.now().plusDays(21).format(DateTimeFormatter.ofPattern("dd-MM-yyyy"));
+        writeImportFile("The Great Gatsby,John Doe," + futureDate + ",81234567,johndoe@example.com\n" +
+                "The Great Gatsby,Jane Doe," + futureDate + ",91234567,janedoe@example.com\n");
+
+        csvImporter.importLoans(TEST_IMPORT_FILE_PATH);
+
+        assertEquals(1, loanList.getLoanList().size());
+        Loan loan = loanList.findLoan(book);
+        assertEquals("John Doe", loan.getBorrowerName());
+        assertTrue(book.isOnLoan());
+        assertTrue(changeTracker.hasLoanChanges());
+        assertTrue(new File(TEST_REJECT_FILE_PATH).exists());
+    }
+
+    @Test
+    void importBooks_noInvalidRows_noRejectFileWritten() throws IOException {
+        writeImportFile("Dune,Frank Herbert,Fiction,Good,Shelf 2\n");
+
+        csvImporter.importBooks(TEST_IMPORT_FILE_PATH);
+
+        assertEquals(1, bookList.getBookList().size());
+        assertFalse(new File(TEST_REJECT_FILE_PATH).exists());
+    }
+
+    @Test
+    void importBooks_unreadableRowAfterValidRows_importRolledBack() throws IOException {
+        writeImportFile("Dune,Frank Herbert,Fiction,Good,Shelf 2\n" +
+                "Dune,Frank Herbert,Fiction,Good,Shelf 2\n" +
+                "To Kill a Mockingbird,Harper Lee,Fiction,Fair,\"Shelf 3\n");
+
+        IOException error = assertThrows(IOException.class, () -> csvImporter.importBooks(TEST_IMPORT_FILE_PATH));
+
+        assertTrue(error.getMessage().contains("The import was rolled back, no books were imported."));
+        assertTrue(bookList.getBookList().isEmpty());
+        assertNull(bookList.searchBook("Dune"));
+        assertFalse(changeTracker.hasChanges());
+        assertFalse(new File(TEST_REJECT_FILE_PATH).exists());
+    }
+
+    @Test
+    void importLoans_unreadableRowAfterValidRow_loanRolledBackAndBookAvailable() throws IOException {
+        Book book = new Book("The Great Gatsby", "F. Scott Fitzgerald", "Fiction", "Good", "Shelf 1");
+        bookList.addBook(book);
+        String futureDate = LocalDate.now().plusDays(21).format(DateTimeFormatter.ofPattern("dd-MM-yyyy"));
+        writeImportFile("The Great Gatsby,John Doe," + futureDate + ",81234567,johndoe@example.com\n" +
+                "Dune,\"Jane Doe");
+
+        assertThrows(IOException.class, () -> csvImporter.importLoans(TEST_IMPORT_FILE_PATH));
+
+        assertTrue(loanList.getLoanList().isEmpty());
+        assertNull(loanList.findLoan(book));
+        assertFalse(book.isOnLoan());
+        assertFalse(changeTracker.hasLoanChanges());
+    }
+
+    private static void writeImportFile(String contents) throws IOException {
+        try (FileWriter writer = new FileWriter(TEST_IMPORT_FILE_PATH)) {
+            writer.write(contents);
+        }
+    }
+}
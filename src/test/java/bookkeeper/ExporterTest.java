@@ -0,0 +1,125 @@
+package bookkeeper;
+
+import bookkeeper.list.BookList;
+import bookkeeper.list.LoanList;
+import bookkeeper.logic.CsvImporter;
+import bookkeeper.model.Book;
+import bookkeeper.model.Loan;
+import bookkeeper.storage.ChangeTracker;
+import bookkeeper.storage.Exporter;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+public class ExporterTest {
+    private static final String TEST_FOLDER_PATH = "./test_data";
+    private static final String TEST_CSV_FILE_PATH = TEST_FOLDER_PATH + "/test_export.csv";
+    private static final String TEST_JSON_FILE_PATH = TEST_FOLDER_PATH + "/test_export.json";
+
+    private BookList bookList;
+    private LoanList loanList;
+
+    @BeforeEach
+    void setUp() {
+        new File(TEST_FOLDER_PATH).mkdirs();
+        bookList = new BookList("Test Inventory", new ArrayList<>());
+        loanList = new LoanList("Test Loan List", new ArrayList<>());
+    }
+
+    @AfterEach
+    void tearDown() {
+        new File(TEST_CSV_FILE_PATH).delete();
+        new File(TEST_JSON_FILE_PATH).delete();
+    }
+
+    @Test
+    void exportBooks_csvFile_importedBackUnchanged() throws IOException {
+        bookList.addBook(new Book("The Great Gatsby", "F. Scott Fitzgerald", "Fiction", "Good", "Shelf 1",
+                "Classic, \"novel\""));
+        bookList.addBook(new Book("Dune", "Frank Herbert", "Scifi", "Fair", "Shelf 2"));
+
+        int count = Exporter.exportBooks(bookList.getBookList(), book -> true, TEST_CSV_FILE_PATH);
+
+        assertEquals(2, count);
+        BookList importedBookList = new BookList("Imported Inventory", new ArrayList<>());
+        new CsvImporter(importedBookList, loanList, new ChangeTracker()).importBooks(TEST_CSV_FILE_PATH);
+        assertEquals(2, importedBookList.getBookList().size());
+        assertEquals("Classic, \"novel\"", importedBookList.searchBook("The Great Gatsby").getNote());
+    }
+
+    @Test
+    void exportBooks_nonAsciiTitleAndAuthor_importedBackUnchanged() throws IOException {
+        String title = "Caf\u00e9 Cr\u00e8me: \u6771\u4eac\u7269\u8a9e";
+        String author = "Zo\u00eb \u00c5ngstr\u00f6m";
+        bookList.addBook(new Book(title, author, "Fiction", "Good", "Shelf 1"));
+
+        Exporter.exportBooks(bookList.getBookList(), book -> true, TEST_CSV_FILE_PATH);
+
+        // Both sides use UTF-8 whatever the platform default charset is
+        assertEquals(List.of("title,author,category,condition,location,note,onLoan",
+                title + "," + author + ",FICTION,GOOD,Shelf 1,,false"),
+                Files.readAllLines(Path.of(TEST_CSV_FILE_PATH), StandardCharsets.UTF_8));
+        BookList importedBookList = new BookList("Imported Inventory", new ArrayList<>());
+        new CsvImporter(importedBookList, loanList, new ChangeTracker()).importBooks(TEST_CSV_FILE_PATH);
+        assertEquals(author, importedBookList.searchBook(title).getAuthor());
+    }
+
+    @Test
+    void exportLoans_jsonFileWithFilter_onlyMatchingLoansWritten() throws IOException {
+        Book book = new Book("The \"Great\" Gatsby", "F. Scott Fitzgerald", "Fiction", "Good", "Shelf 1");
+        Book otherBook = new Book("Dune", "Frank Herbert", "Scifi", "Fair", "Shelf 2");
+        bookList.addBook(book);
+        bookList.addBook(otherBook);
+        String returnDate = LocalDate.now().plusDays(21).format(DateTimeFormatter.ofPattern("dd-MM-yyyy"));
+        loanList.addLoan(new Loan(book, "John Doe", returnDate, "81234567", "johndoe@example.com"));
+        loanList.addLoan(new Loan(otherBook, "Jane Doe", returnDate, "91234567", "janedoe@example.com"));
+
+        int count = Exporter.exportLoans(loanList.getLoanList(), loan -> loan.getBook() == book,
+                TEST_JSON_FILE_PATH);
+
+        assertEquals(1, count);
+        List<String> lines = Files.readAllLines(Path.of(TEST_JSON_FILE_PATH));
+        assertEquals(List.of("[",
+                "  {\"title\": \"The \\\"Great\\\" Gatsby\", \"borrowerName\": \"John Doe\", \"returnDate\": \""
+                        + returnDate + "\", \"phoneNumber\": \"81234567\", \"email\": \"johndoe@example.com\"}",
+                "]"), lines);
+    }
+
+    @Test
+    void exportBooks_noMatchingBooks_emptyJsonArrayWritten() throws IOException {
+        bookList.addBook(new Book("Dune", "Frank Herbert", "Scifi", "Fair", "Shelf 2"));
+
+        Exporter.exportBooks(bookList.getBookList(), Book::isOnLoan, TEST_JSON_FILE_PATH);
+
+        assertEquals(List.of("[]"), Files.readAllLines(Path.of(TEST_JSON_FILE_PATH)));
+    }
+
+    @Test
+    void exportBooks_failureAfterFirstBook_partialFileDeleted() {
+        bookList.addBook(new Book("The Great Gatsby", "F. Scott Fitzgerald", "Fiction", "Good", "Shelf 1"));
+        bookList.addBook(new Book("Dune", "Frank Herbert", "Scifi", "Fair", "Shelf 2"));
+
+        assertThrows(IllegalStateException.class, () -> Exporter.exportBooks(bookList.getBookList(), book -> {
+            if (book.getTitle().equals("Dune")) {
+                throw new IllegalStateException("Export interrupted");
+            }
+            return true;
+        }, TEST_CSV_FILE_PATH));
+
+        assertFalse(new File(TEST_CSV_FILE_PATH).exists());
+    }
+}
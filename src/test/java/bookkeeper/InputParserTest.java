@@ -375,4 +375,30 @@ public class InputParserTest {
                 InputParser.extractUpdateNoteArgs(" note/Updated note"));
         assertEquals(ErrorMessages.INVALID_FORMAT_UPDATE_NOTE, exception.getMessage());
     }
+
+    @Test
+    void extractViewPageArgs_sizeAndPage_success() throws IncorrectFormatException {
+        int[] result = InputParser.extractViewPageArgs(" page/3  size/20 ", ErrorMessages.INVALID_FORMAT_VIEW_LOANS);
+        assertArrayEquals(new int[]{20, 3}, result);
+    }
+
+    @Test
+    void extractViewPageArgs_nonPositiveSize_exceptionThrown() {
+        IncorrectFormatException exception = assertThrows(IncorrectFormatException.class, () ->
+                InputParser.extractViewPageArgs("size/0", ErrorMessages.INVALID_FORMAT_VIEW_INVENTORY));
+        assertEquals(ErrorMessages.INVALID_FORMAT_VIEW_INVENTORY, exception.getMessage());
+    }
+
+    @Test
+    void extractLoansByArgs_nameAndEmail_success() throws IncorrectFormatException {
+        String[] result = InputParser.extractLoansByArgs("n/John Doe e/johndoe@example.com");
+        assertArrayEquals(new String[]{"John Doe", null, "johndoe@example.com"}, result);
+    }
+
+    @Test
+    void extractLoansByArgs_duplicatePrefix_exceptionThrown() {
+        IncorrectFormatException exception = assertThrows(IncorrectFormatException.class, () ->
+                InputParser.extractLoansByArgs("n/John Doe n/Jane Doe"));
+        assertEquals(ErrorMessages.INVALID_FORMAT_LOANS_BY, exception.getMessage());
+    }
 }
@@ -0,0 +1,57 @@
+package bookkeeper;
+
+import bookkeeper.logic.LatencyHistogram;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class LatencyHistogramTest {
+
+    @Test
+    void getValueAtPercentile_smallValues_exact() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        for (long value = 1; value <= 10; value++) {
+            histogram.record(value);
+        }
+
+        assertEquals(5, histogram.getValueAtPercentile(50));
+        assertEquals(9, histogram.getValueAtPercentile(90));
+        assertEquals(10, histogram.getValueAtPercentile(100));
+        assertEquals(10, histogram.getCount());
+    }
+
+    @Test
+    void getValueAtPercentile_largeValues_withinPrecision() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        for (long value = 1; value <= 100_000; value++) {
+            histogram.record(value * 1_000);
+        }
+
+        assertWithinPrecision(50_000_000, histogram.getValueAtPercentile(50));
+        assertWithinPrecision(99_000_000, histogram.getValueAtPercentile(99));
+        assertEquals(100_000_000, histogram.getValueAtPercentile(100));
+        assertEquals(100_000_000, histogram.getMaxNanos());
+        assertEquals(50_000_500, histogram.getMeanNanos());
+    }
+
+    @Test
+    void add_twoHistograms_combinedCountsAndMaximum() {
+        LatencyHistogram first = new LatencyHistogram();
+        first.record(100);
+        LatencyHistogram second = new LatencyHistogram();
+        second.record(-5);
+        second.record(Long.MAX_VALUE);
+
+        first.add(second);
+
+        assertEquals(3, first.getCount());
+        assertEquals(0, first.getValueAtPercentile(0));
+        assertEquals(Long.MAX_VALUE, first.getMaxNanos());
+        assertEquals(Long.MAX_VALUE, first.getValueAtPercentile(100));
+    }
+
+    private static void assertWithinPrecision(long expected, long actual) {
+        assertTrue(Math.abs(actual - expected) <= expected / 32, "Expected about " + expected + " but was " + actual);
+    }
+}
@@ -15,6 +15,7 @@ import java.io.PrintStream;
 import java.time.LocalDate;
 import java.time.format.DateTimeFormatter;
 import java.util.ArrayList;
+import java.util.List;
 
 import static org.junit.jupiter.api.Assertions.assertArrayEquals;
 import static org.junit.jupiter.api.Assertions.assertEquals;
@@ -84,8 +85,8 @@ public class LoanListTest {
     void addLoan_duplicateLoans() {
         loanList.addLoan(loan1);
         loanList.addLoan(loan1); // Add the same loan again
-        assertEquals(2, loanList.getLoanList().size(),
-                "Duplicate loans should be allowed in the list");
+        assertEquals(1, loanList.getLoanList().size(),
+                "A book should have at most one loan in the list");
     }
 
     @Test
@@ -96,6 +97,21 @@ public class LoanListTest {
         assertNull(foundLoan, "Loan should be removed from the list");
     }
 
+    @Test
+    void deleteLoan_loanOfAnotherBookRemains_onlyDeletedLoanUnindexed() {
+        Loan loan2 = new Loan(book2, "Jane Smith",
+                LocalDate.now().plusDays(30).format(DateTimeFormatter.ofPattern("dd-MM-yyyy")),
+                "91234567", "jane@example.com");
+        loanList.addLoan(loan1);
+        loanList.addLoan(loan2);
+
+        loanList.deleteLoan(loan1);
+        assertNull(loanList.findLoan(book1), "The deleted loan should no longer be found");
+        assertEquals(loan2, loanList.findLoan(book2), "The other loan should still be found");
+        assertEquals(loan2, loanList.findLoanByIndex(1),
+                "Display order should be kept after deletion");
+    }
+
     @Test
     void deleteLoan_nonExistingLoan() {
         loanList.addLoan(loan1);
@@ -145,7 +161,7 @@ public class LoanListTest {
 
     @Test
     void removeLoansByBook_valid() {
-        // Add two loans for book1 and one for book2.
+        // Add a loan for book1 and one for book2. A second loan for book1 is not added.
         loanList.addLoan(loan1);
         Loan loan2 = new Loan(book1, "Jane Smith",
                 LocalDate.now().plusDays(30).format(DateTimeFormatter.ofPattern("dd-MM-yyyy")),
@@ -156,9 +172,9 @@ public class LoanListTest {
         loanList.addLoan(loan2);
         loanList.addLoan(loan3);
 
-        // Verify that three loans are in the list.
-        assertEquals(3, loanList.getLoanList().size(),
-                "There should be three loans before removal");
+        // Verify that two loans are in the list.
+        assertEquals(2, loanList.getLoanList().size(),
+                "There should be two loans before removal");
 
         // Remove all loans associated with book1.
         loanList.removeLoansByBook(book1);
@@ -174,6 +190,29 @@ public class LoanListTest {
                 "No loan for book1 should be found after removal");
     }
 
+    @Test
+    void deleteLoan_mostLoansDeleted_remainingLoansKeepDisplayOrder() {
+        String futureDate = LocalDate.now().plusDays(21).format(DateTimeFormatter.ofPattern("dd-MM-yyyy"));
+        ArrayList<Loan> loans = new ArrayList<>();
+        for (int i = 0; i < 10; i++) {
+            Book book = new Book("Book " + i, "Author", "Fiction", "Good", "Shelf 1");
+            Loan loan = new Loan(book, "Borrower " + i, futureDate, "98765432", "abc123@gmail.com");
+            loans.add(loan);
+            loanList.addLoan(loan);
+        }
+
+        // Enough removals to compact the list in between
+        for (int i : new int[]{0, 2, 3, 5, 6}) {
+            loanList.deleteLoan(loans.get(i));
+        }
+        loanList.removeLoansByBook(loans.get(8).getBook());
+
+        assertEquals(List.of(loans.get(1), loans.get(4), loans.get(7), loans.get(9)), loanList.getLoanList());
+        assertEquals(loans.get(4), loanList.findLoanByIndex(2));
+        assertEquals(loans.get(9), loanList.findLoan(loans.get(9).getBook()));
+        assertNull(loanList.findLoan(loans.get(8).getBook()));
+    }
+
     @Test
     void removeLoansByBook_nullBook() {
         // Passing null should trigger an assertion.
@@ -207,4 +246,78 @@ public class LoanListTest {
                 "2025", "98765432", "john.doe@example.com"};
         assertArrayEquals(arguments, output);
     }
+
+    @Test
+    void viewLoanPage_secondPage_numberedByListIndex() {
+        String futureDate = LocalDate.now().plusDays(21).format(DateTimeFormatter.ofPattern("dd-MM-yyyy"));
+        Loan loan2 = new Loan(book2, "Jane Doe", futureDate, "91234567", "jane@gmail.com");
+        loanList.addLoan(loan1);
+        loanList.addLoan(loan2);
+
+        boolean hasNextPage = loanList.viewLoanPage(2, 1);
+
+        String output = outputStreamCaptor.toString();
+        assertTrue(!hasNextPage, "The second page of two loans should be the last");
+        assertTrue(output.contains("2. Title: To Kill a Mockingbird"), "Loans should keep their list index");
+        assertTrue(!output.contains("The Great Gatsby"), "Only the loans on the page should be printed");
+        assertTrue(output.contains("Showing loans 2-2 of 2 (page 2 of 2)."));
+        assertEquals(loan2, loanList.findLoanByIndex(2));
+    }
+
+    @Test
+    void viewLoanPage_pagePastEnd_exceptionThrown() {
+        loanList.addLoan(loan1);
+        assertThrows(IllegalArgumentException.class, () -> loanList.viewLoanPage(2, 1));
+    }
+
+    @Test
+    void findOverdueLoans_restoredPastLoan_onlyPastLoanReturned() {
+        Loan overdueLoan = Loan.restore(book2, "Jane Doe", LocalDate.now().minusDays(3), "91234567",
+                "jane@gmail.com");
+        loanList.addLoan(loan1);
+        loanList.addLoan(overdueLoan);
+
+        assertEquals(List.of(overdueLoan), loanList.findOverdueLoans(LocalDate.now()));
+        assertEquals(List.of(loan1), loanList.findLoansDueBetween(LocalDate.now(), LocalDate.now().plusDays(21)));
+        assertTrue(loanList.findLoansDueBetween(LocalDate.now(), LocalDate.now().plusDays(20)).isEmpty());
+    }
+
+    @Test
+    void updateLoanFields_newReturnDate_returnDateIndexUpdated() {
+        loanList.addLoan(loan1);
+        LocalDate newReturnDate = LocalDate.now().plusDays(2);
+
+        loanList.updateLoanFields(loan1, null, newReturnDate.format(DateTimeFormatter.ofPattern("dd-MM-yyyy")),
+                null, null);
+
+        assertEquals(List.of(loan1), loanList.findLoansDueBetween(LocalDate.now(), newReturnDate));
+        assertTrue(loanList.findLoansDueBetween(LocalDate.now().plusDays(21), LocalDate.now().plusDays(21))
+                .isEmpty());
+        loanList.deleteLoan(loan1);
+        assertTrue(loanList.findLoansDueBetween(LocalDate.now(), newReturnDate).isEmpty());
+    }
+
+    @Test
+    void findLoansByBorrower_differentlyFormattedDetails_matchingLoansReturned() {
+        String futureDate = LocalDate.now().plusDays(21).format(DateTimeFormatter.ofPattern("dd-MM-yyyy"));
+        Loan loan2 = new Loan(book2, "John  Doe", futureDate, "91234567", "ABC123@gmail.com");
+        loanList.addLoan(loan1);
+        loanList.addLoan(loan2);
+
+        assertEquals(List.of(loan1, loan2), loanList.findLoansByBorrower(" john doe", null, null));
+        assertEquals(List.of(loan2), loanList.findLoansByBorrower("John Doe", "9123 4567", "abc123@gmail.com"));
+        assertTrue(loanList.findLoansByBorrower("Jane Doe", null, null).isEmpty());
+    }
+
+    @Test
+    void updateLoanFields_newBorrower_borrowerIndexUpdated() {
+        loanList.addLoan(loan1);
+
+        loanList.updateLoanFields(loan1, "Jane Doe", null, "91234567", null);
+
+        assertTrue(loanList.findLoansByBorrower("John Doe", null, null).isEmpty());
+        assertEquals(List.of(loan1), loanList.findLoansByBorrower("Jane Doe", "91234567", null));
+        loanList.deleteLoan(loan1);
+        assertTrue(loanList.findLoansByBorrower(null, null, "abc123@gmail.com").isEmpty());
+    }
 }
@@ -1,21 +1,42 @@
 package bookkeeper;
 
+import bookkeeper.events.StorageEvent;
 import bookkeeper.list.BookList;
 import bookkeeper.list.LoanList;
 import bookkeeper.model.Book;
 import bookkeeper.model.Loan;
+import bookkeeper.storage.ChangeTracker;
+import bookkeeper.storage.PersistenceWorker;
 import bookkeeper.storage.Storage;
+import bookkeeper.storage.StorageFormat;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
 
+import java.io.ByteArrayOutputStream;
 import java.io.File;
 import java.io.FileWriter;
+import java.io.PrintStream;
+import java.nio.file.FileSystems;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.PosixFilePermission;
+import java.nio.file.attribute.PosixFilePermissions;
 import java.time.LocalDate;
 import java.time.format.DateTimeFormatter;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.locks.ReentrantLock;
 
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.junit.jupiter.api.Assertions.fail;
 
@@ -24,6 +45,9 @@ public class StorageTest {
     private static final String TEST_FOLDER_PATH = "./test_data";
     private static final String TEST_BOOK_LIST_FILE_PATH = TEST_FOLDER_PATH + "/test_bookKeeper_bookList.txt";
     private static final String TEST_LOAN_LIST_FILE_PATH = TEST_FOLDER_PATH + "/test_bookKeeper_loanList.txt";
+    private static final String TEST_JOURNAL_FILE_PATH = TEST_FOLDER_PATH + "/test_bookKeeper_journal.txt";
+    private static final String TEST_BINARY_BOOK_LIST_FILE_PATH = TEST_FOLDER_PATH + "/test_bookKeeper_bookList.bin";
+    private static final String TEST_BINARY_LOAN_LIST_FILE_PATH = TEST_FOLDER_PATH + "/test_bookKeeper_loanList.bin";
 
     private BookList bookList;
     private LoanList loanList;
@@ -43,6 +67,7 @@ public class StorageTest {
         // Update file paths for testing
         Storage.setInventoryFilePath(TEST_BOOK_LIST_FILE_PATH);
         Storage.setLoanFilePath(TEST_LOAN_LIST_FILE_PATH);
+        Storage.setJournalFilePath(TEST_JOURNAL_FILE_PATH);
     }
 
     @AfterEach
@@ -50,7 +75,21 @@ public class StorageTest {
         // Delete test files after each test
         File bookFile = new File(TEST_BOOK_LIST_FILE_PATH);
         File loanFile = new File(TEST_LOAN_LIST_FILE_PATH);
+        File journalFile = new File(TEST_JOURNAL_FILE_PATH);
+        Storage.setJournalEnabled(false);
+        Storage.setStorageFormat(StorageFormat.TEXT);
+        Storage.setGroupCommitSize(1);
+        new File(TEST_BINARY_BOOK_LIST_FILE_PATH).delete();
+        new File(TEST_BINARY_LOAN_LIST_FILE_PATH).delete();
+        File[] leftoverFiles = new File(TEST_FOLDER_PATH).listFiles(
+                (folder, name) -> name.endsWith(".format") || name.endsWith(".bak"));
+        for (File leftoverFile : leftoverFiles == null ? new File[0] : leftoverFiles) {
+            leftoverFile.delete();
+        }
 
+        if (journalFile.exists()) {
+            journalFile.delete();
+        }
         if (bookFile.exists()) {
             bookFile.delete();
         }
@@ -75,6 +114,23 @@ public class StorageTest {
         assertTrue(bookFile.exists());
     }
 
+    @Test
+    void saveInventory_existingFile_permissionsKept() throws Exception {
+        Path bookFile = Path.of(TEST_BOOK_LIST_FILE_PATH);
+        Files.createFile(bookFile);
+        if (!FileSystems.getDefault().supportedFileAttributeViews().contains("posix")) {
+            return; // Permissions are inherited from the directory on other file systems
+        }
+        Set<PosixFilePermission> permissions = PosixFilePermissions.fromString("rw-r-----");
+        Files.setPosixFilePermissions(bookFile, permissions);
+        bookList.addBook(new Book("The Great Gatsby", "F. Scott Fitzgerald", "Fiction", "Good", "Shelf 1"));
+
+        Storage.saveInventory(bookList);
+
+        assertEquals(permissions, Files.getPosixFilePermissions(bookFile));
+        assertEquals(1, Storage.loadInventory().size());
+    }
+
     @Test
     void loadInventory_validFile_correctBookListLoaded() {
         // Create a test file with valid book data
@@ -118,6 +174,25 @@ public class StorageTest {
         assertEquals("To Kill a Mockingbird", loadedBooks.get(1).getTitle());
     }
 
+    @Test
+    void loadInventory_duplicateTitles_duplicatesSkipped() {
+        try (FileWriter writer = new FileWriter(TEST_BOOK_LIST_FILE_PATH)) {
+            writer.write("The Great Gatsby | F. Scott Fitzgerald | Fiction | Good | false | Shelf 1 | " +
+                    "Classic novel\n");
+            writer.write("The Great Gatsby | Someone Else | Horror | Poor | false | Shelf 9 | \n");
+            writer.write("To Kill a Mockingbird | Harper Lee | Fiction | Fair | true | Shelf 2 | " +
+                    "Pulitzer Prize winner\n");
+        } catch (Exception e) {
+            fail("Failed to create test file: " + e.getMessage());
+        }
+
+        ArrayList<Book> loadedBooks = Storage.loadInventory();
+
+        assertEquals(2, loadedBooks.size());
+        assertEquals("F. Scott Fitzgerald", loadedBooks.get(0).getAuthor());
+        assertEquals("To Kill a Mockingbird", loadedBooks.get(1).getTitle());
+    }
+
     @Test
     void saveLoans_validLoanList_fileCreatedWithCorrectData() {
         // Add books to the BookList
@@ -199,4 +274,372 @@ public class StorageTest {
         assertEquals(1, loadedLoans.size());
         assertEquals("To Kill a Mockingbird", loadedLoans.get(0).getBook().getTitle());
     }
+
+    @Test
+    void loadLoans_duplicateLoans_duplicatesSkipped() {
+        bookList.addBook(new Book("The Great Gatsby", "F. Scott Fitzgerald", "Fiction",
+                "Good", "Shelf 1", "Classic novel"));
+
+        try (FileWriter writer = new FileWriter(TEST_LOAN_LIST_FILE_PATH)) {
+            writer.write("The Great Gatsby | John Doe | 21-12-2026 | 81234567 | johndoe@example.com\n");
+            writer.write("The Great Gatsby | Jane Doe | 30-12-2026 | 98765432 | janedoe@example.com\n");
+        } catch (Exception e) {
+            fail("Failed to create test file: " + e.getMessage());
+        }
+
+        ArrayList<Loan> loadedLoans = Storage.loadLoans(bookList);
+
+        assertEquals(1, loadedLoans.size());
+        assertEquals("John Doe", loadedLoans.get(0).getBorrowerName());
+    }
+
+    @Test
+    void saveChanges_noChanges_noFilesWritten() {
+        bookList.addBook(new Book("The Great Gatsby", "F. Scott Fitzgerald", "Fiction",
+                "Good", "Shelf 1", "Classic novel"));
+
+        Storage.saveChanges(new ChangeTracker(), bookList, loanList);
+
+        assertFalse(new File(TEST_BOOK_LIST_FILE_PATH).exists());
+        assertFalse(new File(TEST_LOAN_LIST_FILE_PATH).exists());
+    }
+
+    @Test
+    void saveChanges_bookChanged_onlyInventoryWritten() {
+        Book book = new Book("The Great Gatsby", "F. Scott Fitzgerald", "Fiction",
+                "Good", "Shelf 1", "Classic novel");
+        bookList.addBook(book);
+        ChangeTracker changeTracker = new ChangeTracker();
+        changeTracker.markBookChanged(book);
+
+        Storage.saveChanges(changeTracker, bookList, loanList);
+
+        assertTrue(new File(TEST_BOOK_LIST_FILE_PATH).exists());
+        assertFalse(new File(TEST_LOAN_LIST_FILE_PATH).exists());
+        assertFalse(changeTracker.hasChanges());
+    }
+
+    @Test
+    void saveChanges_groupCommit_changesFlushedTogether() {
+        Storage.setGroupCommitSize(2);
+        Book book = new Book("The Great Gatsby", "F. Scott Fitzgerald", "Fiction",
+                "Good", "Shelf 1", "Classic novel");
+        bookList.addBook(book);
+        ChangeTracker changeTracker = new ChangeTracker();
+        changeTracker.markBookAdded(book);
+
+        Storage.saveChanges(changeTracker, bookList, loanList);
+        assertFalse(new File(TEST_BOOK_LIST_FILE_PATH).exists());
+        assertTrue(changeTracker.hasChanges());
+
+        changeTracker.markBookChanged(book);
+        Storage.saveChanges(changeTracker, bookList, loanList);
+        assertTrue(new File(TEST_BOOK_LIST_FILE_PATH).exists());
+        assertFalse(changeTracker.hasChanges());
+    }
+
+    @Test
+    void shutdown_pendingGroupCommit_changesFlushed() {
+        Storage.setGroupCommitSize(10);
+        Book book = new Book("The Great Gatsby", "F. Scott Fitzgerald", "Fiction",
+                "Good", "Shelf 1", "Classic novel");
+        bookList.addBook(book);
+        ChangeTracker changeTracker = new ChangeTracker();
+        changeTracker.markBookAdded(book);
+        Storage.saveChanges(changeTracker, bookList, loanList);
+
+        Storage.shutdown(changeTracker, bookList, loanList);
+
+        assertEquals(1, Storage.loadInventory().size());
+        assertFalse(changeTracker.hasChanges());
+    }
+
+    @Test
+    void persistenceWorker_changesSignalled_changesWrittenByStop() {
+        ReentrantLock stateLock = new ReentrantLock();
+        ChangeTracker changeTracker = new ChangeTracker();
+        PersistenceWorker persistenceWorker = new PersistenceWorker(stateLock, changeTracker, bookList, loanList,
+                60_000);
+        persistenceWorker.start();
+
+        Book book = new Book("The Great Gatsby", "F. Scott Fitzgerald", "Fiction",
+                "Good", "Shelf 1", "Classic novel");
+        stateLock.lock();
+        try {
+            bookList.addBook(book);
+            changeTracker.markBookAdded(book);
+        } finally {
+            stateLock.unlock();
+        }
+        persistenceWorker.signalChanged();
+        persistenceWorker.stop();
+
+        assertTrue(new File(TEST_BOOK_LIST_FILE_PATH).exists());
+        assertFalse(changeTracker.hasChanges());
+        assertEquals(1, Storage.loadInventory().size());
+    }
+
+    @Test
+    void replayJournal_journaledChanges_changesRestored() {
+        Storage.setJournalEnabled(true);
+        Book book = new Book("The Great Gatsby", "F. Scott Fitzgerald", "Fiction",
+                "Good", "Shelf 1", "Classic novel");
+        bookList.addBook(book);
+        ChangeTracker changeTracker = new ChangeTracker();
+        changeTracker.markBookAdded(book);
+        Storage.saveChanges(changeTracker, bookList, loanList);
+
+        // Rename the book and loan it out in a later flush
+        changeTracker.markBookChanged(book);
+        book.setTitle("Gatsby");
+        String futureDate = LocalDate.now().plusDays(21).format(DateTimeFormatter.ofPattern("dd-MM-yyyy"));
+        Loan loan = new Loan(book, "John Doe", futureDate, "81234567", "johndoe@example.com");
+        loanList.addLoan(loan);
+        changeTracker.markLoanAdded(loan);
+        Storage.saveChanges(changeTracker, bookList, loanList);
+
+        assertFalse(new File(TEST_BOOK_LIST_FILE_PATH).exists());
+        assertTrue(new File(TEST_JOURNAL_FILE_PATH).exists());
+
+        BookList replayedBookList = new BookList("Replayed Inventory", new ArrayList<>());
+        LoanList replayedLoanList = new LoanList("Replayed Loan List", new ArrayList<>());
+        Storage.replayJournal(replayedBookList, replayedLoanList);
+        Storage.shutdown(new ChangeTracker(), replayedBookList, replayedLoanList);
+
+        assertEquals(1, replayedBookList.getBookList().size());
+        assertEquals("Gatsby", replayedBookList.getBookList().get(0).getTitle());
+        assertTrue(replayedBookList.getBookList().get(0).isOnLoan());
+        assertEquals(1, replayedLoanList.getLoanList().size());
+        assertEquals("John Doe", replayedLoanList.getLoanList().get(0).getBorrowerName());
+
+        // The journal is folded into the snapshot once replayed
+        assertTrue(new File(TEST_BOOK_LIST_FILE_PATH).exists());
+        assertFalse(new File(TEST_JOURNAL_FILE_PATH).exists());
+    }
+
+    @Test
+    void replayJournal_journalDisabled_leftoverJournalFoldedIntoDataFiles() {
+        Storage.setJournalEnabled(true);
+        Book book = new Book("The Great Gatsby", "F. Scott Fitzgerald", "Fiction", "Good", "Shelf 1");
+        bookList.addBook(book);
+        ChangeTracker changeTracker = new ChangeTracker();
+        changeTracker.markBookAdded(book);
+        Storage.saveChanges(changeTracker, bookList, loanList);
+        assertFalse(new File(TEST_BOOK_LIST_FILE_PATH).exists());
+
+        // A later run without journal mode must not lose the journaled change
+        Storage.setJournalEnabled(false);
+        BookList replayedBookList = new BookList("Replayed Inventory", new ArrayList<>());
+        Storage.replayJournal(replayedBookList, new LoanList("Replayed Loan List", new ArrayList<>()));
+
+        assertEquals(1, replayedBookList.getBookList().size());
+        assertEquals(1, Storage.loadInventory().size());
+        assertFalse(new File(TEST_JOURNAL_FILE_PATH).exists());
+    }
+
+    @Test
+    void shutdown_compactionFails_failureReportedOnce() {
+        Storage.setJournalEnabled(true);
+        // A directory in place of the inventory file makes the snapshot fail on the compactor thread
+        new File(TEST_BOOK_LIST_FILE_PATH).mkdirs();
+        Book book = new Book("The Great Gatsby", "F. Scott Fitzgerald", "Fiction", "Good", "Shelf 1");
+        bookList.addBook(book);
+        ChangeTracker changeTracker = new ChangeTracker();
+        changeTracker.markBookAdded(book);
+        Storage.saveChanges(changeTracker, bookList, loanList);
+
+        PrintStream originalOut = System.out;
+        ByteArrayOutputStream outputStreamCaptor = new ByteArrayOutputStream();
+        System.setOut(new PrintStream(outputStreamCaptor));
+        try {
+            Storage.shutdown(changeTracker, bookList, loanList);
+            Storage.reportCompactionFailure();
+        } finally {
+            System.setOut(originalOut);
+            new File(TEST_JOURNAL_FILE_PATH + ".compacting").delete();
+        }
+
+        String output = outputStreamCaptor.toString();
+        String message = "Something went wrong while compacting journal";
+        assertEquals(output.indexOf(message), output.lastIndexOf(message));
+        assertTrue(output.contains(message));
+    }
+
+    @Test
+    void loadInventory_binaryFormat_booksAndLoansRestored() {
+        Storage.setStorageFormat(StorageFormat.BINARY);
+        Book book = new Book("The Great Gatsby", "F. Scott Fitzgerald", "Fiction",
+                "Good", "Shelf 1", "Classic | novel");
+        bookList.addBook(book);
+        String futureDate = LocalDate.now().plusDays(21).format(DateTimeFormatter.ofPattern("dd-MM-yyyy"));
+        loanList.addLoan(new Loan(book, "John Doe", futureDate, "81234567", "johndoe@example.com"));
+        Storage.saveInventory(bookList);
+        Storage.saveLoans(loanList);
+
+        assertTrue(new File(TEST_BINARY_BOOK_LIST_FILE_PATH).exists());
+        assertFalse(new File(TEST_BOOK_LIST_FILE_PATH).exists());
+
+        BookList loadedBookList = new BookList("Loaded Inventory", Storage.loadInventory());
+        ArrayList<Loan> loadedLoans = Storage.loadLoans(loadedBookList);
+
+        assertEquals(1, loadedBookList.getBookList().size());
+        Book loadedBook = loadedBookList.getBookList().get(0);
+        assertEquals("The Great Gatsby", loadedBook.getTitle());
+        assertEquals("Classic | novel", loadedBook.getNote());
+        assertTrue(loadedBook.isOnLoan());
+        assertEquals(1, loadedLoans.size());
+        assertEquals("John Doe", loadedLoans.get(0).getBorrowerName());
+        assertEquals(futureDate, loadedLoans.get(0).getReturnDate()
+                .format(DateTimeFormatter.ofPattern("dd-MM-yyyy")));
+    }
+
+    @Test
+    void loadInventory_formatSwitchedAndOldFileTouched_latestFormatLoaded() throws Exception {
+        bookList.addBook(new Book("The Great Gatsby", "F. Scott Fitzgerald", "Fiction", "Good", "Shelf 1"));
+        Storage.saveInventory(bookList);
+        Storage.setStorageFormat(StorageFormat.BINARY);
+        bookList.addBook(new Book("Dune", "Frank Herbert", "Fiction", "Good", "Shelf 2"));
+        Storage.saveInventory(bookList);
+
+        // The text file is kept as a backup, and restoring it must not make it look newer
+        assertFalse(new File(TEST_BOOK_LIST_FILE_PATH).exists());
+        Path backupFile = Path.of(TEST_BOOK_LIST_FILE_PATH + ".bak");
+        assertTrue(Files.exists(backupFile));
+        Files.copy(backupFile, Path.of(TEST_BOOK_LIST_FILE_PATH));
+        assertTrue(new File(TEST_BOOK_LIST_FILE_PATH).setLastModified(System.currentTimeMillis() + 60_000));
+
+        assertEquals(2, Storage.loadInventory().size());
+
+        // Switching back converts the binary file and sets it aside instead
+        Storage.setStorageFormat(StorageFormat.TEXT);
+        Storage.saveInventory(bookList);
+        assertFalse(new File(TEST_BINARY_BOOK_LIST_FILE_PATH).exists());
+        assertTrue(new File(TEST_BINARY_BOOK_LIST_FILE_PATH + ".bak").exists());
+        assertEquals(2, Storage.loadInventory().size());
+    }
+
+    @Test
+    void loadInventory_truncatedBinaryFile_nothingLoadedAndFileNotOverwritten() throws Exception {
+        Storage.setStorageFormat(StorageFormat.BINARY);
+        for (int i = 0; i < 100; i++) {
+            bookList.addBook(new Book("Book " + i, "Author", "Fiction", "Good", "Shelf 1"));
+        }
+        Storage.saveInventory(bookList);
+        Path binaryFile = Path.of(TEST_BINARY_BOOK_LIST_FILE_PATH);
+        byte[] bytes = Files.readAllBytes(binaryFile);
+        byte[] truncatedBytes = Arrays.copyOf(bytes, bytes.length / 2);
+        Files.write(binaryFile, truncatedBytes);
+
+        BookList loadedBookList = new BookList("Loaded Inventory", Storage.loadInventory());
+        assertEquals(0, loadedBookList.getBookList().size());
+
+        Book book = new Book("New Book", "Author", "Fiction", "Good", "Shelf 1");
+        loadedBookList.addBook(book);
+        ChangeTracker changeTracker = new ChangeTracker();
+        changeTracker.markBookAdded(book);
+        Storage.saveChanges(changeTracker, loadedBookList, loanList);
+        Storage.saveInventory(loadedBookList);
+
+        assertArrayEquals(truncatedBytes, Files.readAllBytes(binaryFile));
+        Files.delete(binaryFile);
+        Storage.loadInventory(); // Starts a new session, so later tests can save again
+    }
+
+    @Test
+    void loadInventory_largeFileWithMixedLineBreaks_allBooksLoaded() {
+        // Large enough to be parsed in parallel
+        int bookCount = 100_000;
+        try (FileWriter writer = new FileWriter(TEST_BOOK_LIST_FILE_PATH)) {
+            for (int i = 0; i < bookCount; i++) {
+                writer.write("Book " + i + " | Author " + i + " | Fiction | Good | false | Shelf " + i + " | " +
+                        "A note long enough to push the file past the parallel threshold");
+                writer.write(i % 2 == 0 ? "\r\n" : "\n");
+            }
+        } catch (Exception e) {
+            fail("Exception should not be thrown: " + e.getMessage());
+        }
+
+        ArrayList<Book> loadedBooks = Storage.loadInventory();
+
+        assertEquals(bookCount, loadedBooks.size());
+        assertEquals("Book 0", loadedBooks.get(0).getTitle());
+        assertEquals("Shelf 1", loadedBooks.get(1).getLocation());
+        assertEquals("A note long enough to push the file past the parallel threshold",
+                loadedBooks.get(bookCount - 1).getNote());
+    }
+
+    @Test
+    void saveInventory_rightAfterLargeLoad_fileReplaced() {
+        // Large enough to be parsed in parallel, which must leave nothing holding the file open
+        int bookCount = 100_000;
+        try (FileWriter writer = new FileWriter(TEST_BOOK_LIST_FILE_PATH)) {
+            for (int i = 0; i < bookCount; i++) {
+                writer.write("Book " + i + " | Author " + i + " | Fiction | Good | false | Shelf " + i + " | " +
+                        "A note long enough to push the file past the parallel threshold" + System.lineSeparator());
+            }
+        } catch (Exception e) {
+            fail("Exception should not be thrown: " + e.getMessage());
+        }
+        BookList largeBookList = new BookList("Large Inventory", Storage.loadInventory());
+        largeBookList.removeBook(largeBookList.getBookList().get(0));
+
+        Storage.saveInventory(largeBookList);
+
+        ArrayList<Book> reloadedBooks = Storage.loadInventory();
+        assertEquals(bookCount - 1, reloadedBooks.size());
+        assertEquals("Book 1", reloadedBooks.get(0).getTitle());
+    }
+
+    @Test
+    void loadLoans_largeFileWithInvalidAndDuplicateLoans_validLoansLoadedInOrder() {
+        // Large enough to be parsed in parallel
+        int loanCount = 150_000;
+        String futureDate = LocalDate.now().plusDays(21).format(DateTimeFormatter.ofPattern("dd-MM-yyyy"));
+        ArrayList<Book> books = new ArrayList<>();
+        try (FileWriter writer = new FileWriter(TEST_LOAN_LIST_FILE_PATH)) {
+            for (int i = 0; i < loanCount; i++) {
+                books.add(new Book("Book " + i, "Author", "Fiction", "Good", "Shelf 1"));
+                String phoneNumber = i == 5 ? "12345678" : "81234567"; // Invalid phone number
+                writer.write("Book " + i + " | Borrower " + i + " | " + futureDate + " | " + phoneNumber +
+                        " | borrower@example.com" + System.lineSeparator());
+            }
+            writer.write("Book 7 | Someone Else | " + futureDate + " | 81234567 | someone@example.com" +
+                    System.lineSeparator());
+        } catch (Exception e) {
+            fail("Exception should not be thrown: " + e.getMessage());
+        }
+        BookList largeBookList = new BookList("Large Inventory", books);
+
+        ArrayList<Loan> loadedLoans = Storage.loadLoans(largeBookList);
+
+        assertEquals(loanCount - 1, loadedLoans.size());
+        assertEquals("Borrower 4", loadedLoans.get(4).getBorrowerName());
+        assertEquals("Borrower 6", loadedLoans.get(5).getBorrowerName());
+        assertEquals("Borrower 7", loadedLoans.get(6).getBorrowerName());
+        assertEquals("Borrower " + (loanCount - 1), loadedLoans.get(loanCount - 2).getBorrowerName());
+        assertTrue(books.get(loanCount - 1).isOnLoan());
+        assertFalse(books.get(5).isOnLoan());
+    }
+
+    @Test
+    void saveInventory_flightRecording_storageEventWithRecordCountAndBytes() throws Exception {
+        bookList.addBook(new Book("The Great Gatsby", "F. Scott Fitzgerald", "Fiction", "Good", "Shelf 1"));
+        bookList.addBook(new Book("Dune", "Frank Herbert", "Fiction", "Good", "Shelf 2"));
+        Path recordingPath = Path.of(TEST_FOLDER_PATH, "test_recording.jfr");
+
+        try (Recording recording = new Recording()) {
+            recording.enable(StorageEvent.class);
+            recording.start();
+            Storage.saveInventory(bookList);
+            recording.stop();
+            recording.dump(recordingPath);
+        }
+
+        List<RecordedEvent> events = RecordingFile.readAllEvents(recordingPath);
+        Files.delete(recordingPath);
+        assertEquals(1, events.size());
+        assertEquals(StorageEvent.SAVE, events.get(0).getString("operation"));
+        assertEquals(2, events.get(0).getInt("recordCount"));
+        assertEquals(new File(TEST_BOOK_LIST_FILE_PATH).length(), events.get(0).getLong("bytes"));
+    }
 }